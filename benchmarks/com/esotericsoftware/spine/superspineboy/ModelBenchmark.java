@@ -0,0 +1,314 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Enemy.Type;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** JMH benchmarks for the model's hot paths, run with "mvn -P benchmarks package exec:exec". Everything uses the collision layer
+ * of the real map and fixed seeds, and every invocation starts from the same state, so results can be compared across changes.
+ * Benchmarks that advance the model restore it from a {@link Snapshot} and then run a second of steps, so the restore is a small
+ * part of the time reported per step. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 3, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch"})
+public class ModelBenchmark {
+	static final float delta = 1 / 60f;
+	static final int steps = 60, samples = 256;
+	static final long seed = 1234;
+	static final Type[] crowdTypes = {Type.weak, Type.normal, Type.normal, Type.strong};
+
+	static private CollisionMap collisionMap;
+
+	static synchronized CollisionMap collisionMap () {
+		if (collisionMap == null) {
+			Headless.initialize();
+			collisionMap = CollisionMap.load(Gdx.files.internal("map/map.tmx"), Model.mapCollisionLayer);
+		}
+		return collisionMap;
+	}
+
+	/** Returns a model with the player at the start of the map and events turned off, since nothing drains them. */
+	static Model model () {
+		Model model = new Model(collisionMap(), Gdx.files.internal("map/triggers.json"));
+		model.restart(seed);
+		model.events.enabled = false;
+		return model;
+	}
+
+	/** Spawns enemies on the floor of the first room, which is 130 tiles long. */
+	static void spawnCrowd (Model model, int count, RandomXS128 random) {
+		for (int i = 0; i < count; i++) {
+			Enemy enemy = model.enemyPool.obtain(crowdTypes[random.nextInt(crowdTypes.length)]);
+			enemy.setPosition(8 + random.nextFloat() * 120, 8);
+			model.enemies.add(enemy);
+		}
+	}
+
+	/** A character at positions and velocities spread over the map, so both open space and walls are tested. */
+	@State(Scope.Thread)
+	public static class Collide {
+		Character character;
+		final float[] x = new float[samples], y = new float[samples], vx = new float[samples], vy = new float[samples];
+		final float[] rayX = new float[samples], rayY = new float[samples];
+
+		@Setup
+		public void setup () {
+			character = model().player;
+			RandomXS128 random = new RandomXS128(seed);
+			for (int i = 0; i < samples; i++) {
+				x[i] = 1 + random.nextFloat() * (collisionMap.width - 2);
+				y[i] = 7 + random.nextFloat() * 25;
+				vx[i] = (random.nextFloat() * 2 - 1) * 0.25f; // Units per step.
+				vy[i] = (random.nextFloat() * 2 - 1) * 0.35f;
+				float angle = random.nextFloat() * MathUtils.PI2, length = Player.bulletSpeed * delta;
+				rayX[i] = MathUtils.cos(angle) * length;
+				rayY[i] = MathUtils.sin(angle) * length;
+			}
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(samples)
+	public int collideX (Collide state) {
+		Character character = state.character;
+		int collisions = 0;
+		for (int i = 0; i < samples; i++) {
+			character.position.set(state.x[i], state.y[i]);
+			character.velocity.set(state.vx[i], state.vy[i]);
+			if (character.collideX()) collisions++;
+		}
+		return collisions;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(samples)
+	public int collideY (Collide state) {
+		Character character = state.character;
+		int collisions = 0;
+		for (int i = 0; i < samples; i++) {
+			character.position.set(state.x[i], state.y[i]);
+			character.velocity.set(state.vx[i], state.vy[i]);
+			if (character.collideY()) collisions++;
+		}
+		return collisions;
+	}
+
+	/** Finds the spans of solid tiles overlapping character sized rectangles, the query that replaced looking up the collision
+	 * tiles cell by cell. */
+	@Benchmark
+	@OperationsPerInvocation(samples)
+	public int collisionSpans (Collide state) {
+		CollisionMap collisionMap = state.character.model.collisionMap;
+		int tiles = 0;
+		for (int i = 0; i < samples; i++) {
+			int startX = (int)state.x[i], endX = startX + 2, startY = (int)state.y[i], endY = startY + 5;
+			for (int y = startY; y <= endY; y++) {
+				int x = collisionMap.firstSolidX(y, startX, endX);
+				while (x <= endX) {
+					int end = collisionMap.firstEmptyX(y, x, endX);
+					tiles += end - x;
+					x = collisionMap.firstSolidX(y, end, endX);
+				}
+			}
+		}
+		return tiles;
+	}
+
+	/** Casts rays the length a bullet travels in one step. */
+	@Benchmark
+	@OperationsPerInvocation(samples)
+	public float raycast (Collide state) {
+		CollisionMap collisionMap = state.character.model.collisionMap;
+		float total = 0;
+		for (int i = 0; i < samples; i++) {
+			float time = collisionMap.raycast(state.x[i], state.y[i], state.rayX[i], state.rayY[i]);
+			if (time <= 1) total += time;
+		}
+		return total;
+	}
+
+	/** Bullets fired from the player into a crowd of enemies that can't be killed, so every invocation hits the same enemies. */
+	@State(Scope.Thread)
+	public static class Volley {
+		@Param({"16", "64", "256"}) public int bullets;
+		@Param({"10", "100", "1000"}) public int enemies;
+
+		Model model;
+		Bullets start;
+
+		@Setup
+		public void setup () {
+			model = model();
+			start = spawnBullets(model, bullets, enemies);
+		}
+	}
+
+	@Benchmark
+	public int updateBullets (Volley state) {
+		Model model = state.model;
+		model.bullets.set(state.start);
+		model.updateBullets(delta);
+		return model.bullets.size;
+	}
+
+	/** Many more bullets than spread fire has in flight. The time for each count divided by the count should stay the same, since
+	 * removing a bullet no longer shifts the bullets after it. */
+	@State(Scope.Thread)
+	public static class Hell {
+		@Param({"1000", "10000", "100000"}) public int bullets;
+
+		Model model;
+		Bullets start;
+
+		@Setup
+		public void setup () {
+			model = model();
+			start = spawnBullets(model, bullets, 100);
+		}
+	}
+
+	@Benchmark
+	public int updateBulletsHell (Hell state) {
+		Model model = state.model;
+		model.bullets.set(state.start);
+		model.updateBullets(delta);
+		return model.bullets.size;
+	}
+
+	/** Spawns enemies that can't be killed, so every invocation hits the same enemies, and bullets fired from the player into
+	 * them.
+	 * @return The bullets, to restore before each invocation. */
+	static Bullets spawnBullets (Model model, int bullets, int enemies) {
+		RandomXS128 random = new RandomXS128(seed);
+		spawnCrowd(model, enemies, random);
+		for (Enemy enemy : model.enemies)
+			enemy.hp = Float.MAX_VALUE;
+
+		Player player = model.player;
+		player.setPosition(40, 8);
+		for (int i = 0; i < bullets; i++) {
+			float angle = (random.nextFloat() * 2 - 1) * 30 * MathUtils.degRad, distance = random.nextFloat() * 20;
+			float cos = MathUtils.cos(angle), sin = MathUtils.sin(angle);
+			if (random.nextBoolean()) cos = -cos;
+			model.addBullet(player.position.x + cos * distance, 10 + sin * distance, cos * Player.bulletSpeed,
+				sin * Player.bulletSpeed, angle * MathUtils.radDeg);
+		}
+		Bullets start = new Bullets(Model.maxBullets, Model.replaceBullets);
+		start.set(model.bullets);
+		return start;
+	}
+
+	/** A crowd of enemies that has been running toward the player for a second. The enemies are updated one at a time, with
+	 * {@link Model#batchIntegration}, or with LOD so those more than {@link Model#lodActiveDistance} from the player are updated
+	 * at a reduced rate. */
+	@State(Scope.Thread)
+	public static class Crowd {
+		@Param({"10", "100", "1000"}) public int enemies;
+		@Param({"objects", "batch", "lod"}) public String update;
+
+		Model model;
+		final Snapshot snapshot = new Snapshot();
+
+		@Setup
+		public void setup () {
+			Model.batchIntegration = update.equals("batch");
+			Model.enemyLod = update.equals("lod");
+			model = model();
+			model.player.setPosition(60, 8);
+			spawnCrowd(model, enemies, new RandomXS128(seed));
+			for (int i = 0; i < steps; i++)
+				model.updateEnemies(delta);
+			snapshot.save(model);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(steps)
+	public int updateEnemies (Crowd state) {
+		Model model = state.model;
+		state.snapshot.restore(model);
+		for (int i = 0; i < steps; i++)
+			model.updateEnemies(delta);
+		return model.enemies.size;
+	}
+
+	/** A game played by the {@link Bot} for ten seconds, so the triggers have spawned enemies and the player is shooting. */
+	@State(Scope.Thread)
+	public static class Game {
+		Model model;
+		final Bot bot = new Bot();
+		final Snapshot snapshot = new Snapshot();
+
+		@Setup
+		public void setup () {
+			model = model();
+			bot.restart(seed);
+			for (int i = 0; i < 600; i++) {
+				bot.update(model, model.input);
+				model.update(delta);
+			}
+			snapshot.save(model);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(steps)
+	public long update (Game state) {
+		Model model = state.model;
+		Bot bot = state.bot;
+		state.snapshot.restore(model);
+		bot.restart(seed);
+		for (int i = 0; i < steps; i++) {
+			bot.update(model, model.input);
+			model.update(delta);
+		}
+		return model.getStateHash();
+	}
+}
@@ -33,6 +33,8 @@ import com.esotericsoftware.spine.Animation;
 import com.esotericsoftware.spine.AnimationStateData;
 import com.esotericsoftware.spine.SkeletonData;
 import com.esotericsoftware.spine.SkeletonJson;
+import com.esotericsoftware.spine.attachments.AtlasAttachmentLoader;
+import com.esotericsoftware.spine.attachments.AttachmentLoader;
 import com.esotericsoftware.spine.superspineboy.Model.State;
 import com.esotericsoftware.spine.superspineboy.View.StateView;
 
@@ -74,8 +76,17 @@ class Assets {
 		SoundEffect.hurtAlien.sound = Gdx.audio.newSound(Gdx.files.internal("sounds/hurt-alien.ogg"));
 		SoundEffect.hurtAlien.volume = 0.5f;
 
-		loadPlayerAssets();
-		loadEnemyAssets();
+		playerAtlas = new TextureAtlas(Gdx.files.internal("spineboy/spineboy.atlas"));
+		enemyAtlas = new TextureAtlas(Gdx.files.internal("alien/alien.atlas"));
+		loadPlayerAssets(new AtlasAttachmentLoader(playerAtlas));
+		loadEnemyAssets(new AtlasAttachmentLoader(enemyAtlas));
+	}
+
+	/** Loads only the skeletons and animations, using the attachment loader instead of the atlases. A loader that doesn't need
+	 * textures allows skeletons to be posed and animated headless. The regions, atlases and sounds are not loaded. */
+	Assets (AttachmentLoader attachmentLoader) {
+		loadPlayerAssets(attachmentLoader);
+		loadEnemyAssets(attachmentLoader);
 	}
 
 	TextureRegion loadRegion (String name) {
@@ -84,10 +95,8 @@ class Assets {
 		return new TextureRegion(texture);
 	}
 
-	void loadPlayerAssets () {
-		playerAtlas = new TextureAtlas(Gdx.files.internal("spineboy/spineboy.atlas"));
-
-		SkeletonJson json = new SkeletonJson(playerAtlas);
+	void loadPlayerAssets (AttachmentLoader attachmentLoader) {
+		SkeletonJson json = new SkeletonJson(attachmentLoader);
 		json.setScale(Player.height / Player.heightSource);
 		playerSkeletonData = json.readSkeletonData(Gdx.files.internal("spineboy/spineboy.json"));
 
@@ -107,10 +116,8 @@ class Assets {
 		fall.defaultStartTime = 22 * fps;
 	}
 
-	void loadEnemyAssets () {
-		enemyAtlas = new TextureAtlas(Gdx.files.internal("alien/alien.atlas"));
-
-		SkeletonJson json = new SkeletonJson(enemyAtlas);
+	void loadEnemyAssets (AttachmentLoader attachmentLoader) {
+		SkeletonJson json = new SkeletonJson(attachmentLoader);
 		json.setScale(Enemy.height / Enemy.heightSource);
 		enemySkeletonData = json.readSkeletonData(Gdx.files.internal("alien/alien.json"));
 
@@ -144,14 +151,20 @@ class Assets {
 		enemyAtlas.dispose();
 	}
 
+	/** Sounds are played by the {@link SoundScheduler}. */
 	enum SoundEffect {
-		shoot, hit, footstep1, footstep2, squish, hurtPlayer, hurtAlien;
+		shoot(1.45f, 4, 2), hit(0.17f, 4, 1), footstep1(0.21f, 2, 0), footstep2(0.21f, 2, 0), squish(0.78f, 3, 1),
+		hurtPlayer(0.31f, 1, 3), hurtAlien(0.55f, 3, 2);
 
 		Sound sound;
 		float volume = 1;
+		final float duration; // Seconds, used to know when a voice has finished.
+		final int maxVoices, priority;
 
-		void play () {
-			sound.play(volume);
+		SoundEffect (float duration, int maxVoices, int priority) {
+			this.duration = duration;
+			this.maxVoices = maxVoices;
+			this.priority = priority;
 		}
 	}
 }
@@ -0,0 +1,93 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/** Builds the quads for all the bullets into one vertex array in a single pass, which is submitted to the batch without per
+ * bullet draw calls. The vertices are the same as drawing each bullet with a rotated region, using the cosine and sine stored
+ * with each bullet instead of computing them every frame. */
+class BulletMesh {
+	static final int quadSize = 20; // 4 vertices of x, y, color, u, v.
+	// The batch flushes before copying vertices but doesn't split them, so they are submitted in chunks that fit its buffer.
+	static final int chunkSize = 256 * quadSize;
+	static final float offsetX = 0.65f, offsetY = 0.5f; // The bullet's position is the center of the fireball in the region.
+
+	float[] vertices = new float[quadSize * 64];
+	int count; // Number of floats in the vertices.
+
+	void build (Bullets bullets, TextureRegion region, float width, float height, float color) {
+		build(bullets, region.getU(), region.getV(), region.getU2(), region.getV2(), width, height, color);
+	}
+
+	/** @param u The texture coordinates of the region.
+	 * @param width The length of a bullet along its angle.
+	 * @param color A packed color. */
+	void build (Bullets bullets, float u, float v, float u2, float v2, float width, float height, float color) {
+		int n = bullets.size;
+		count = n * quadSize;
+		if (count > vertices.length) vertices = new float[Math.max(count, vertices.length << 1)];
+		float[] vertices = this.vertices, bulletX = bullets.x, bulletY = bullets.y, cos = bullets.cos, sin = bullets.sin;
+		for (int i = 0, ii = 0; i < n; i++, ii += quadSize) {
+			float c = cos[i], s = sin[i];
+			// Corner offsets along the bullet's length and across it.
+			float lengthX = c * width, lengthY = s * width, acrossX = -s * height, acrossY = c * height;
+			float x1 = bulletX[i] - lengthX * offsetX - acrossX * offsetY;
+			float y1 = bulletY[i] - lengthY * offsetX - acrossY * offsetY;
+			float x2 = x1 + acrossX, y2 = y1 + acrossY;
+			vertices[ii] = x1;
+			vertices[ii + 1] = y1;
+			vertices[ii + 2] = color;
+			vertices[ii + 3] = u;
+			vertices[ii + 4] = v2;
+			vertices[ii + 5] = x2;
+			vertices[ii + 6] = y2;
+			vertices[ii + 7] = color;
+			vertices[ii + 8] = u;
+			vertices[ii + 9] = v;
+			vertices[ii + 10] = x2 + lengthX;
+			vertices[ii + 11] = y2 + lengthY;
+			vertices[ii + 12] = color;
+			vertices[ii + 13] = u2;
+			vertices[ii + 14] = v;
+			vertices[ii + 15] = x1 + lengthX;
+			vertices[ii + 16] = y1 + lengthY;
+			vertices[ii + 17] = color;
+			vertices[ii + 18] = u2;
+			vertices[ii + 19] = v2;
+		}
+	}
+
+	void draw (Batch batch, Texture texture) {
+		for (int i = 0; i < count; i += chunkSize)
+			batch.draw(texture, vertices, i, Math.min(chunkSize, count - i));
+	}
+}
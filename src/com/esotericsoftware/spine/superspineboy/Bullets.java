@@ -0,0 +1,161 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.nio.ByteBuffer;
+
+/** Stores the bullets as parallel arrays. A bullet is removed by moving the last bullet into its place, so removing doesn't shift
+ * the other bullets but does change their order. The arrays grow as needed up to the capacity. When full, a new bullet either
+ * replaces an existing bullet or is not added. The cosine and sine of each bullet's angle are computed when it is added, since
+ * the angle doesn't change and drawing needs them every frame. */
+class Bullets {
+	float[] vx, vy, x, y, angle, cos, sin;
+	int size;
+	final int capacity;
+	final boolean replace; // When full, new bullets replace existing bullets in turn, roughly oldest first.
+	int replaceIndex;
+	int dropped; // Number of bullets replaced or not added because the store was full.
+
+	Bullets (int capacity, boolean replace) {
+		this.capacity = capacity;
+		this.replace = replace;
+		resize(Math.min(capacity, 64));
+	}
+
+	/** @return The index of the new bullet, or -1 if the store is full and doesn't replace bullets. */
+	int add (float x, float y, float vx, float vy, float angle) {
+		int index = size;
+		if (index == capacity) {
+			dropped++;
+			if (!replace) return -1;
+			index = replaceIndex;
+			replaceIndex = (replaceIndex + 1) % capacity;
+		} else {
+			if (index == this.x.length) resize(Math.min(capacity, index << 1));
+			size++;
+		}
+		this.vx[index] = vx;
+		this.vy[index] = vy;
+		this.x[index] = x;
+		this.y[index] = y;
+		this.angle[index] = angle;
+		cos[index] = MathUtils.cosDeg(angle);
+		sin[index] = MathUtils.sinDeg(angle);
+		return index;
+	}
+
+	/** Moves the last bullet to the specified index. */
+	void remove (int index) {
+		int last = --size;
+		vx[index] = vx[last];
+		vy[index] = vy[last];
+		x[index] = x[last];
+		y[index] = y[last];
+		angle[index] = angle[last];
+		cos[index] = cos[last];
+		sin[index] = sin[last];
+	}
+
+	void clear () {
+		size = 0;
+		replaceIndex = 0;
+	}
+
+	/** Sets this store to the same bullets as the specified store, without allocating unless the arrays need to grow. */
+	void set (Bullets bullets) {
+		int size = Math.min(bullets.size, capacity);
+		ensureCapacity(size);
+		System.arraycopy(bullets.vx, 0, vx, 0, size);
+		System.arraycopy(bullets.vy, 0, vy, 0, size);
+		System.arraycopy(bullets.x, 0, x, 0, size);
+		System.arraycopy(bullets.y, 0, y, 0, size);
+		System.arraycopy(bullets.angle, 0, angle, 0, size);
+		System.arraycopy(bullets.cos, 0, cos, 0, size);
+		System.arraycopy(bullets.sin, 0, sin, 0, size);
+		this.size = size;
+		replaceIndex = bullets.replaceIndex;
+	}
+
+	private void ensureCapacity (int size) {
+		if (size > x.length) resize(Math.min(capacity, Math.max(size, x.length << 1)));
+	}
+
+	private void resize (int length) {
+		vx = copy(vx, length);
+		vy = copy(vy, length);
+		x = copy(x, length);
+		y = copy(y, length);
+		angle = copy(angle, length);
+		cos = copy(cos, length);
+		sin = copy(sin, length);
+	}
+
+	static private float[] copy (float[] array, int length) {
+		float[] newArray = new float[length];
+		if (array != null) System.arraycopy(array, 0, newArray, 0, Math.min(array.length, length));
+		return newArray;
+	}
+
+	long hash (long hash) {
+		for (int i = 0; i < size; i++) {
+			hash = hash * 31 + Float.floatToIntBits(vx[i]);
+			hash = hash * 31 + Float.floatToIntBits(vy[i]);
+			hash = hash * 31 + Float.floatToIntBits(x[i]);
+			hash = hash * 31 + Float.floatToIntBits(y[i]);
+			hash = hash * 31 + Float.floatToIntBits(angle[i]);
+		}
+		return hash;
+	}
+
+	void write (ByteBuffer buffer) {
+		buffer.putInt(size);
+		buffer.putInt(replaceIndex);
+		for (int i = 0; i < size; i++)
+			buffer.putFloat(vx[i]).putFloat(vy[i]).putFloat(x[i]).putFloat(y[i]).putFloat(angle[i]);
+	}
+
+	void read (ByteBuffer buffer) {
+		int size = buffer.getInt();
+		ensureCapacity(size);
+		this.size = size;
+		replaceIndex = buffer.getInt();
+		for (int i = 0; i < size; i++) {
+			vx[i] = buffer.getFloat();
+			vy[i] = buffer.getFloat();
+			x[i] = buffer.getFloat();
+			y[i] = buffer.getFloat();
+			float angle = buffer.getFloat();
+			this.angle[i] = angle;
+			cos[i] = MathUtils.cosDeg(angle);
+			sin[i] = MathUtils.sinDeg(angle);
+		}
+	}
+}
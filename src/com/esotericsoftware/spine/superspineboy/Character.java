@@ -34,6 +34,8 @@ import com.esotericsoftware.spine.superspineboy.Model.State;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
+import java.nio.ByteBuffer;
+
 /** The model class for an enemy or player that moves around the map. */
 class Character {
 	static float minVelocityX = 0.001f, maxVelocityY = 20f;
@@ -43,6 +45,7 @@ class Character {
 
 	Model model;
 	Vector2 position = new Vector2();
+	Vector2 previousPosition = new Vector2();
 	Vector2 velocity = new Vector2();
 	State state = State.idle;
 	float stateTime;
@@ -60,6 +63,57 @@ class Character {
 		this.model = model;
 	}
 
+	/** Sets the values common to all characters as if the character was newly created. */
+	void reset () {
+		position.setZero();
+		previousPosition.setZero();
+		velocity.setZero();
+		state = State.idle;
+		stateTime = 0;
+		dir = 0;
+		airTime = 0;
+		rect.set(0, 0, 0, 0);
+		stateChanged = false;
+		hp = 0;
+		maxVelocityX = 0;
+		collisionOffsetY = 0;
+		jumpVelocity = 0;
+	}
+
+	/** Writes the character's state to a snapshot. */
+	void write (ByteBuffer buffer) {
+		buffer.putFloat(position.x).putFloat(position.y);
+		buffer.putFloat(previousPosition.x).putFloat(previousPosition.y);
+		buffer.putFloat(velocity.x).putFloat(velocity.y);
+		buffer.put((byte)state.ordinal());
+		buffer.putFloat(stateTime);
+		buffer.putFloat(dir);
+		buffer.putFloat(airTime);
+		buffer.putFloat(rect.x).putFloat(rect.y).putFloat(rect.width).putFloat(rect.height);
+		buffer.put((byte)(stateChanged ? 1 : 0));
+		buffer.putFloat(hp);
+		buffer.putFloat(maxVelocityX);
+		buffer.putFloat(collisionOffsetY);
+		buffer.putFloat(jumpVelocity);
+	}
+
+	/** Reads the character's state from a snapshot. */
+	void read (ByteBuffer buffer) {
+		position.set(buffer.getFloat(), buffer.getFloat());
+		previousPosition.set(buffer.getFloat(), buffer.getFloat());
+		velocity.set(buffer.getFloat(), buffer.getFloat());
+		state = Snapshot.states[buffer.get()];
+		stateTime = buffer.getFloat();
+		dir = buffer.getFloat();
+		airTime = buffer.getFloat();
+		rect.set(buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+		stateChanged = buffer.get() != 0;
+		hp = buffer.getFloat();
+		maxVelocityX = buffer.getFloat();
+		collisionOffsetY = buffer.getFloat();
+		jumpVelocity = buffer.getFloat();
+	}
+
 	void setState (State newState) {
 		if ((state == newState && state != State.fall) || state == State.death) return;
 		state = newState;
@@ -68,6 +122,12 @@ class Character {
 	}
 
 	void update (float delta) {
+		updateState(delta);
+		updateVelocity(delta);
+		updatePosition(delta);
+	}
+
+	void updateState (float delta) {
 		stateTime += delta;
 
 		// If moving downward, change state to fall.
@@ -75,20 +135,26 @@ class Character {
 			setState(State.fall);
 			setGrounded(false);
 		}
+	}
 
+	/** Applies gravity and damping. {@link CharacterStore} does the same for many characters at once and must stay in sync. */
+	void updateVelocity (float delta) {
 		// Apply gravity.
 		velocity.y -= gravity * delta;
 		if (velocity.y < 0 && -velocity.y > maxVelocityY) velocity.y = Math.signum(velocity.y) * maxVelocityY;
 
-		boolean grounded = isGrounded();
-
 		// Damping reduces velocity so the character eventually comes to a complete stop.
-		float damping = (grounded ? dampingGroundX : dampingAirX) * delta;
+		float damping = (isGrounded() ? dampingGroundX : dampingAirX) * delta;
 		if (velocity.x > 0)
 			velocity.x = Math.max(0, velocity.x - damping);
 		else
 			velocity.x = Math.min(0, velocity.x + damping);
-		if (Math.abs(velocity.x) < minVelocityX && grounded) {
+	}
+
+	void updatePosition (float delta) {
+		previousPosition.set(position);
+
+		if (Math.abs(velocity.x) < minVelocityX && isGrounded()) {
 			velocity.x = 0;
 			setState(State.idle);
 		}
@@ -100,6 +166,24 @@ class Character {
 		velocity.scl(1 / delta); // Change velocity back.
 	}
 
+	/** Sets the position without interpolating from the previous position. */
+	void setPosition (float x, float y) {
+		position.set(x, y);
+		previousPosition.set(x, y);
+	}
+
+	/** Returns the x position interpolated between the previous and current simulation steps. */
+	float getX (float alpha) {
+		if (alpha >= 1) return position.x;
+		return previousPosition.x + (position.x - previousPosition.x) * alpha;
+	}
+
+	/** Returns the y position interpolated between the previous and current simulation steps. */
+	float getY (float alpha) {
+		if (alpha >= 1) return position.y;
+		return previousPosition.y + (position.y - previousPosition.y) * alpha;
+	}
+
 	boolean isGrounded () {
 		// The character is considered grounded for a short time after leaving the ground, making jumping over gaps easier.
 		return airTime < groundedTime;
@@ -118,14 +202,14 @@ class Character {
 			x = (int)(rect.x + rect.width);
 		else
 			x = (int)rect.x;
-		int startY = (int)rect.y;
 		int endY = (int)(rect.y + rect.height);
-		for (Rectangle tile : model.getCollisionTiles(x, startY, x, endY)) {
-			if (!rect.overlaps(tile)) continue;
+		CollisionMap collisionMap = model.collisionMap;
+		for (int y = collisionMap.firstSolidY(x, (int)rect.y, endY); y <= endY; y = collisionMap.firstSolidY(x, y + 1, endY)) {
+			if (!overlapsTile(x, y)) continue;
 			if (velocity.x >= 0)
-				position.x = tile.x - rect.width;
+				position.x = x - rect.width;
 			else
-				position.x = tile.x + tile.width;
+				position.x = x + 1;
 			velocity.x *= collideDampingX;
 			return true;
 		}
@@ -141,14 +225,14 @@ class Character {
 			y = (int)(rect.y + rect.height);
 		else
 			y = (int)rect.y;
-		int startX = (int)rect.x;
 		int endX = (int)(rect.x + rect.width);
-		for (Rectangle tile : model.getCollisionTiles(startX, y, endX, y)) {
-			if (!rect.overlaps(tile)) continue;
+		CollisionMap collisionMap = model.collisionMap;
+		for (int x = collisionMap.firstSolidX(y, (int)rect.x, endX); x <= endX; x = collisionMap.firstSolidX(y, x + 1, endX)) {
+			if (!overlapsTile(x, y)) continue;
 			if (velocity.y > 0)
-				position.y = tile.y - rect.height;
+				position.y = y - rect.height;
 			else {
-				position.y = tile.y + tile.height;
+				position.y = y + 1;
 				if (state == State.jump) setState(State.idle);
 				setGrounded(true);
 			}
@@ -158,6 +242,11 @@ class Character {
 		return false;
 	}
 
+	/** Returns true if the rect overlaps the 1x1 tile at the specified position. */
+	boolean overlapsTile (int x, int y) {
+		return rect.x < x + 1 && rect.x + rect.width > x && rect.y < y + 1 && rect.y + rect.height > y;
+	}
+
 	void moveLeft (float delta) {
 		float adjust;
 		if (isGrounded()) {
@@ -0,0 +1,92 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static com.esotericsoftware.spine.superspineboy.Character.*;
+import static com.esotericsoftware.spine.superspineboy.Model.*;
+
+import com.badlogic.gdx.utils.Array;
+
+/** Structure of arrays storage for the character values that gravity and damping use, so they can be applied to many characters
+ * in one loop over primitive arrays. The loop uses the vector API when the jdk.incubator.vector module is present, else scalar
+ * code. Both must produce exactly the same values as {@link Character#updateVelocity(float)}. Positions are not stored, since
+ * moving a character goes through the collision map one character at a time. */
+class CharacterStore {
+	static final boolean vectorAvailable = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+	static boolean vector = true; // When false, the scalar loop is used even if the vector API is available.
+
+	float[] velocityX = new float[64], velocityY = new float[64], airTime = new float[64];
+
+	/** Grows the arrays to hold the specified number of characters. Must be called before loading from multiple threads. */
+	void ensureCapacity (int size) {
+		if (size <= velocityX.length) return;
+		int capacity = Math.max(size, velocityX.length << 1);
+		velocityX = new float[capacity];
+		velocityY = new float[capacity];
+		airTime = new float[capacity];
+	}
+
+	/** Copies the values from the characters from start (inclusive) to end (exclusive) to the same indices. */
+	void load (Array<? extends Character> characters, int start, int end) {
+		float[] velocityX = this.velocityX, velocityY = this.velocityY, airTime = this.airTime;
+		for (int i = start; i < end; i++) {
+			Character character = characters.get(i);
+			velocityX[i] = character.velocity.x;
+			velocityY[i] = character.velocity.y;
+			airTime[i] = character.airTime;
+		}
+	}
+
+	/** Copies the velocities back to the characters they were loaded from. */
+	void store (Array<? extends Character> characters, int start, int end) {
+		float[] velocityX = this.velocityX, velocityY = this.velocityY;
+		for (int i = start; i < end; i++)
+			characters.get(i).velocity.set(velocityX[i], velocityY[i]);
+	}
+
+	/** Applies gravity and damping to the characters from start (inclusive) to end (exclusive). */
+	void integrate (int start, int end, float delta) {
+		if (vector && vectorAvailable)
+			VectorIntegrator.integrate(velocityX, velocityY, airTime, start, end, delta);
+		else
+			integrate(velocityX, velocityY, airTime, start, end, delta);
+	}
+
+	/** The scalar loop, also used for the lanes left over by the vector loop. */
+	static void integrate (float[] velocityX, float[] velocityY, float[] airTime, int start, int end, float delta) {
+		float gravityDelta = gravity * delta, groundDamping = dampingGroundX * delta, airDamping = dampingAirX * delta;
+		for (int i = start; i < end; i++) {
+			float y = velocityY[i] - gravityDelta;
+			if (y < 0 && -y > maxVelocityY) y = -maxVelocityY;
+			velocityY[i] = y;
+
+			float x = velocityX[i], damping = airTime[i] < groundedTime ? groundDamping : airDamping;
+			velocityX[i] = x > 0 ? Math.max(0, x - damping) : Math.min(0, x + damping);
+		}
+	}
+}
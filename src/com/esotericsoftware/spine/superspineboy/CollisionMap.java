@@ -0,0 +1,417 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.BaseTmxMapLoader;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.XmlReader;
+import com.badlogic.gdx.utils.XmlReader.Element;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/** Stores which tiles of the map are solid using one bit per tile. The map is split into chunks 64 tiles wide, so each row of a
+ * chunk is one long. Queries never look up map cells or allocate and a whole row can be scanned 64 tiles at a time. Tiles outside
+ * the map are never solid.
+ * <p>
+ * A map created with a {@link ChunkSource} is paged: {@link #update(float)} keeps only the chunks around the player resident,
+ * loading the chunks ahead on a background thread. Tiles in chunks that are not resident are never solid. A paged map follows
+ * one player, so unlike a fully resident map it can't be shared by models on different threads. */
+class CollisionMap {
+	static final int chunkShift = 6, chunkSize = 1 << chunkShift;
+
+	final int width, height, chunkCount;
+	final long[][] chunks; // Indexed by chunk then row, null if the chunk isn't resident.
+
+	final ChunkSource source;
+	// Chunks within requiredRadius of the player's chunk are always resident. Chunks within prefetchRadius are loaded in the
+	// background and chunks farther than prefetchRadius + 1 are evicted.
+	int requiredRadius = 2, prefetchRadius = 3;
+	int center = -1;
+	int residentCount, loadCount, stallCount;
+	private boolean[] pending;
+	private ExecutorService loader;
+	private final ConcurrentLinkedQueue<Chunk> loaded = new ConcurrentLinkedQueue();
+
+	/** Creates a map with every chunk resident. */
+	CollisionMap (int width, int height) {
+		this.width = width;
+		this.height = height;
+		chunkCount = (width + chunkSize - 1) >>> chunkShift;
+		chunks = new long[chunkCount][height];
+		residentCount = chunkCount;
+		source = null;
+	}
+
+	/** Creates a paged map with no chunks resident. */
+	CollisionMap (int width, int height, ChunkSource source) {
+		this.width = width;
+		this.height = height;
+		chunkCount = (width + chunkSize - 1) >>> chunkShift;
+		chunks = new long[chunkCount][];
+		this.source = source;
+		pending = new boolean[chunkCount];
+	}
+
+	/** Creates a collision map where every tile that has a cell in the layer is solid. */
+	CollisionMap (TiledMapTileLayer layer) {
+		this(layer.getWidth(), layer.getHeight());
+		for (int y = 0; y < height; y++)
+			for (int x = 0; x < width; x++)
+				if (layer.getCell(x, y) != null) setSolid(x, y, true);
+	}
+
+	/** Reads only the specified tile layer from a TMX file. Unlike the tiled map loaders this doesn't load tilesets or textures,
+	 * so it doesn't need a GL context. Every tile with a nonzero ID is solid. */
+	static CollisionMap load (FileHandle file, int layerIndex) {
+		Element root = new XmlReader().parse(file);
+		Element layer = null;
+		for (int i = 0, index = 0, n = root.getChildCount(); i < n; i++) {
+			Element child = root.getChild(i);
+			String name = child.getName();
+			if (!name.equals("layer") && !name.equals("objectgroup") && !name.equals("imagelayer") && !name.equals("group"))
+				continue;
+			if (index++ == layerIndex) {
+				layer = child;
+				break;
+			}
+		}
+		if (layer == null || !layer.getName().equals("layer"))
+			throw new GdxRuntimeException("Tile layer not found: " + layerIndex + ", " + file);
+
+		int width = layer.getIntAttribute("width"), height = layer.getIntAttribute("height");
+		CollisionMap map = new CollisionMap(width, height);
+		int[] ids = BaseTmxMapLoader.getTileIds(layer, width, height);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				// TMX rows are stored top to bottom.
+				if ((ids[y * width + x] & ~0xe0000000) != 0) map.setSolid(x, height - 1 - y, true);
+			}
+		}
+		return map;
+	}
+
+	/** Writes the map in the chunked format read by {@link #open(FileHandle)}. Every chunk must be resident. */
+	void save (FileHandle file) {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file.write(false)))) {
+			output.writeInt(width);
+			output.writeInt(height);
+			for (long[] rows : chunks)
+				for (long row : rows)
+					output.writeLong(row);
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error writing collision map: " + file, ex);
+		}
+	}
+
+	/** Opens a map written by {@link #save(FileHandle)} as a paged map. Each chunk is read from the file only when it is needed,
+	 * so the size of the map doesn't affect memory usage. */
+	static CollisionMap open (FileHandle file) {
+		FileSource source = new FileSource(file);
+		return new CollisionMap(source.width, source.height, source);
+	}
+
+	/** Returns a paged map that loads its chunks by copying them from the specified map, eg to test paging with a map that fits
+	 * in memory. */
+	static CollisionMap paged (final CollisionMap map) {
+		return new CollisionMap(map.width, map.height, new ChunkSource() {
+			public void read (int chunk, long[] rows) {
+				System.arraycopy(map.chunks[chunk], 0, rows, 0, rows.length);
+			}
+
+			public void close () {
+			}
+		});
+	}
+
+	/** Loads and evicts chunks for a player at the specified x. When this returns every chunk within {@link #requiredRadius} is
+	 * resident, waiting for it to load if it wasn't prefetched in time. Does nothing if the map isn't paged. */
+	void update (float x) {
+		if (source == null) return;
+
+		for (Chunk chunk; (chunk = loaded.poll()) != null;) {
+			int index = chunk.index;
+			pending[index] = false;
+			if (chunks[index] == null && Math.abs(index - center) <= prefetchRadius + 1) {
+				chunks[index] = chunk.rows;
+				residentCount++;
+			}
+		}
+
+		int center = MathUtils.clamp(MathUtils.floor(x) >> chunkShift, 0, chunkCount - 1);
+		if (center != this.center) {
+			this.center = center;
+			for (int i = 0; i < chunkCount; i++) {
+				if (chunks[i] != null && Math.abs(i - center) > prefetchRadius + 1) {
+					chunks[i] = null;
+					residentCount--;
+				}
+			}
+			int start = Math.max(0, center - prefetchRadius), end = Math.min(chunkCount - 1, center + prefetchRadius);
+			for (int i = start; i <= end; i++) {
+				if (chunks[i] != null || pending[i]) continue;
+				pending[i] = true;
+				if (loader == null) loader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+					public Thread newThread (Runnable runnable) {
+						Thread thread = new Thread(runnable, "CollisionMap loader");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+				final int index = i;
+				loader.execute(new Runnable() {
+					public void run () {
+						loaded.add(new Chunk(index, read(index)));
+					}
+				});
+			}
+		}
+
+		for (int i = Math.max(0, center - requiredRadius), n = Math.min(chunkCount - 1, center + requiredRadius); i <= n; i++) {
+			if (chunks[i] != null) continue;
+			// The chunk wasn't prefetched in time. A background load may still be pending, its result is discarded.
+			chunks[i] = read(i);
+			residentCount++;
+			stallCount++;
+		}
+	}
+
+	private long[] read (int chunk) {
+		long[] rows = new long[height];
+		synchronized (source) {
+			source.read(chunk, rows);
+			loadCount++;
+		}
+		return rows;
+	}
+
+	/** Returns true if characters at the specified x are simulated. For a paged map this is only within {@link #requiredRadius}
+	 * of the player, where the chunks are guaranteed to be resident. It depends only on the position of the player when
+	 * {@link #update(float)} was last called, not on the timing of loads, so paging doesn't affect determinism. */
+	boolean isSimulated (float x) {
+		if (source == null) return true;
+		return Math.abs(MathUtils.clamp(MathUtils.floor(x) >> chunkShift, 0, chunkCount - 1) - center) <= requiredRadius;
+	}
+
+	/** Evicts all chunks, stops the background loader and closes the source. The map can't be used afterward. */
+	void dispose () {
+		if (source == null) return;
+		if (loader != null) {
+			// A read in progress finishes before the source is closed.
+			loader.shutdownNow();
+			try {
+				loader.awaitTermination(5, TimeUnit.SECONDS);
+			} catch (InterruptedException ignored) {
+			}
+			loader = null;
+		}
+		source.close();
+		loaded.clear();
+		for (int i = 0; i < chunkCount; i++) {
+			chunks[i] = null;
+			pending[i] = false;
+		}
+		residentCount = 0;
+		center = -1;
+	}
+
+	/** Every chunk to be changed must be resident. */
+	void setSolid (int x, int y, boolean solid) {
+		long[] rows = chunks[x >>> chunkShift];
+		if (solid)
+			rows[y] |= 1L << x;
+		else
+			rows[y] &= ~(1L << x);
+	}
+
+	boolean isSolid (int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height) return false;
+		long[] rows = chunks[x >>> chunkShift];
+		return rows != null && (rows[y] & (1L << x)) != 0;
+	}
+
+	/** Returns the row of 64 tiles for the chunk, or 0 if the chunk isn't resident. */
+	private long row (int chunk, int y) {
+		long[] rows = chunks[chunk];
+		return rows == null ? 0 : rows[y];
+	}
+
+	/** Returns the fraction of the segment from x,y to x + dx,y + dy where it first enters a solid tile, 0 if it starts in a
+	 * solid tile, or infinity if it doesn't hit a solid tile. The tiles are traversed in the order the segment crosses them, so
+	 * the cost is proportional to the number of tiles crossed. */
+	float raycast (float x, float y, float dx, float dy) {
+		int tileX = MathUtils.floor(x), tileY = MathUtils.floor(y);
+		if (isSolid(tileX, tileY)) return 0;
+
+		int stepX = 0, stepY = 0;
+		float deltaX = Float.POSITIVE_INFINITY, deltaY = Float.POSITIVE_INFINITY; // Fraction to cross one tile.
+		float nextX = Float.POSITIVE_INFINITY, nextY = Float.POSITIVE_INFINITY; // Fraction to reach the next tile edge.
+		if (dx > 0) {
+			stepX = 1;
+			deltaX = 1 / dx;
+			nextX = (tileX + 1 - x) * deltaX;
+		} else if (dx < 0) {
+			stepX = -1;
+			deltaX = -1 / dx;
+			nextX = (x - tileX) * deltaX;
+		}
+		if (dy > 0) {
+			stepY = 1;
+			deltaY = 1 / dy;
+			nextY = (tileY + 1 - y) * deltaY;
+		} else if (dy < 0) {
+			stepY = -1;
+			deltaY = -1 / dy;
+			nextY = (y - tileY) * deltaY;
+		}
+
+		while (true) {
+			float time;
+			if (nextX < nextY) {
+				time = nextX;
+				tileX += stepX;
+				nextX += deltaX;
+			} else {
+				time = nextY;
+				tileY += stepY;
+				nextY += deltaY;
+			}
+			if (time > 1) return Float.POSITIVE_INFINITY;
+			if (isSolid(tileX, tileY)) return time;
+		}
+	}
+
+	/** Returns the y of the first solid tile in column x from startY to endY inclusive, or endY + 1 if there is none. */
+	int firstSolidY (int x, int startY, int endY) {
+		if (x < 0 || x >= width) return endY + 1;
+		long[] rows = chunks[x >>> chunkShift];
+		if (rows == null) return endY + 1;
+		long mask = 1L << x;
+		for (int y = Math.max(startY, 0), end = Math.min(endY, height - 1); y <= end; y++)
+			if ((rows[y] & mask) != 0) return y;
+		return endY + 1;
+	}
+
+	/** Returns the x of the first solid tile in row y from startX to endX inclusive, or endX + 1 if there is none. */
+	int firstSolidX (int y, int startX, int endX) {
+		if (y < 0 || y >= height) return endX + 1;
+		int x = Math.max(startX, 0), end = Math.min(endX, width - 1);
+		if (x > end) return endX + 1;
+		int chunk = x >>> chunkShift, lastChunk = end >>> chunkShift;
+		long bits = row(chunk, y) & (-1L << x);
+		while (true) {
+			if (bits != 0) {
+				int found = (chunk << chunkShift) + Long.numberOfTrailingZeros(bits);
+				return found <= end ? found : endX + 1;
+			}
+			if (++chunk > lastChunk) return endX + 1;
+			bits = row(chunk, y);
+		}
+	}
+
+	/** Returns the x of the first empty tile in row y from startX to endX inclusive, or endX + 1 if there is none. Together with
+	 * {@link #firstSolidX(int, int, int)} this finds spans of solid tiles. */
+	int firstEmptyX (int y, int startX, int endX) {
+		if (startX > endX) return endX + 1;
+		if (y < 0 || y >= height || startX < 0 || startX >= width) return startX;
+		int end = Math.min(endX, width - 1);
+		int chunk = startX >>> chunkShift, lastChunk = end >>> chunkShift;
+		long bits = ~row(chunk, y) & (-1L << startX);
+		while (true) {
+			if (bits != 0) return Math.min((chunk << chunkShift) + Long.numberOfTrailingZeros(bits), end + 1);
+			if (++chunk > lastChunk) return end + 1;
+			bits = ~row(chunk, y);
+		}
+	}
+
+	/** Provides the tiles for a paged map. Reads happen on the loader thread or, if a chunk is needed before it was prefetched,
+	 * on the thread updating the model, but never at the same time. */
+	interface ChunkSource {
+		/** Stores one long per row of the chunk, bit n is the tile at x = chunk * 64 + n. */
+		void read (int chunk, long[] rows);
+
+		/** Releases the source's resources, eg an open file. Called by {@link CollisionMap#dispose()}. */
+		void close ();
+	}
+
+	/** Reads chunks from a file written by {@link CollisionMap#save(FileHandle)}. The chunks are stored one after another, so a
+	 * chunk is a single read at a known offset. */
+	static class FileSource implements ChunkSource {
+		final int width, height;
+		final RandomAccessFile file;
+		final byte[] bytes;
+
+		FileSource (FileHandle file) {
+			try {
+				this.file = new RandomAccessFile(file.file(), "r");
+				width = this.file.readInt();
+				height = this.file.readInt();
+			} catch (IOException ex) {
+				throw new GdxRuntimeException("Error reading collision map: " + file, ex);
+			}
+			bytes = new byte[height * 8];
+		}
+
+		public void read (int chunk, long[] rows) {
+			try {
+				file.seek(8 + (long)chunk * bytes.length);
+				file.readFully(bytes);
+			} catch (IOException ex) {
+				throw new GdxRuntimeException("Error reading collision map chunk: " + chunk, ex);
+			}
+			ByteBuffer.wrap(bytes).asLongBuffer().get(rows);
+		}
+
+		public void close () {
+			StreamUtils.closeQuietly(file);
+		}
+	}
+
+	static class Chunk {
+		final int index;
+		final long[] rows;
+
+		Chunk (int index, long[] rows) {
+			this.index = index;
+			this.rows = rows;
+		}
+	}
+}
@@ -31,7 +31,9 @@ import static com.esotericsoftware.spine.superspineboy.Model.*;
 
 import com.esotericsoftware.spine.superspineboy.Model.State;
 
-import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+
+import java.nio.ByteBuffer;
 
 /** The model class for an enemy. */
 class Enemy extends Character {
@@ -40,36 +42,69 @@ class Enemy extends Character {
 	static float maxVelocityMinX = 4f, maxVelocityMaxX = 8.5f, maxVelocityAirX = 19f;
 	static float hpWeak = 1, hpSmall = 2, hpNormal = 3, hpStrong = 5, hpBecomesBig = 8, hpBig = 20;
 	static float corpseTime = 5 * 60, fadeTime = 3;
+	static float corpseSettleTime = 2; // Long enough for the death animation to finish.
 	static float jumpDistanceNormal = 20, jumpDelayNormal = 1.6f, jumpVelocityNormal = 12, jumpVelocityBig = 18;
 	static float sizeSmall = 0.5f, sizeBig = 2.5f, sizeStrong = 1.3f, bigDuration = 2, smallCount = 14;
 
 	static float normalKnockbackX = 19, normalKnockbackY = 9, bigKnockbackX = 12, bigKnockbackY = 6;
 	static float collisionDelay = 0.3f;
+	static final int lodActive = 0, lodReduced = 1, lodDormant = 2;
 
-	float deathTimer = corpseTime;
+	float deathTimer;
 	float maxVelocityGroundX;
 	float collisionTimer;
 	float jumpDelayTimer, jumpDistance, jumpDelay;
-	Type type;
-	float size = 1;
+	Type type, poolType;
+	int id, generation; // Set by the pool. The generation changes each time the pool reuses the enemy.
+	float size;
 	float bigTimer;
 	float spawnSmallsTimer;
 	boolean move;
 	boolean forceJump;
+	boolean spawnSmalls;
 	int collisions;
-	float knockbackX = normalKnockbackX, knockbackY = normalKnockbackY;
+	boolean indexed;
+	boolean wasGrounded;
+	float knockbackX, knockbackY;
+	int lod, lodSkipped; // How often the enemy is updated and the number of steps since the last update.
+	boolean bulletNear; // Set by the model each step before the enemies are updated.
+	// Each enemy has its own random numbers, so enemies can be updated in any order or in parallel with the same results.
+	RandomXS128 random = new RandomXS128();
 
 	// This is here for convenience, the model should never touch the view.
 	EnemyView view;
 
 	Enemy (Model model, Type type) {
 		super(model);
+		reset(type);
+	}
+
+	/** Sets all the enemy's values as if it was newly created, so a pooled enemy can be reused. */
+	void reset (Type type) {
+		super.reset();
+		random.setSeed(model.random.nextLong());
 		this.type = type;
+		poolType = type;
+		deathTimer = corpseTime;
+		collisionTimer = 0;
+		size = 1;
+		bigTimer = 0;
+		spawnSmallsTimer = 0;
+		move = false;
+		forceJump = false;
+		spawnSmalls = false;
+		collisions = 0;
+		wasGrounded = false;
+		knockbackX = normalKnockbackX;
+		knockbackY = normalKnockbackY;
+		lod = lodActive;
+		lodSkipped = 0;
+		bulletNear = false;
 
 		rect.width = width;
 		rect.height = height;
 
-		maxVelocityGroundX = MathUtils.random(maxVelocityMinX, maxVelocityMaxX);
+		maxVelocityGroundX = random(maxVelocityMinX, maxVelocityMaxX);
 		maxVelocityX = maxVelocityGroundX;
 		jumpVelocity = jumpVelocityNormal;
 		jumpDelay = jumpDelayNormal;
@@ -99,10 +134,94 @@ class Enemy extends Character {
 		} else
 			hp = hpNormal;
 
-		jumpDelayTimer = MathUtils.random(0, jumpDelay);
+		jumpDelayTimer = random(0, jumpDelay);
+	}
+
+	/** Writes the enemy's state to a snapshot. The pool type is written first, so the enemy can be reset for its type before it
+	 * is read. */
+	void write (ByteBuffer buffer) {
+		buffer.put((byte)poolType.ordinal());
+		buffer.put((byte)type.ordinal());
+		super.write(buffer);
+		buffer.putFloat(deathTimer);
+		buffer.putFloat(maxVelocityGroundX);
+		buffer.putFloat(collisionTimer);
+		buffer.putFloat(jumpDelayTimer).putFloat(jumpDistance).putFloat(jumpDelay);
+		buffer.putFloat(size);
+		buffer.putFloat(bigTimer);
+		buffer.putFloat(spawnSmallsTimer);
+		buffer.put((byte)((move ? 1 : 0) | (forceJump ? 2 : 0) | (spawnSmalls ? 4 : 0) | (wasGrounded ? 8 : 0)));
+		buffer.putInt(collisions);
+		buffer.putFloat(knockbackX).putFloat(knockbackY);
+		buffer.put((byte)lod);
+		buffer.putInt(lodSkipped);
+		buffer.putLong(random.getState(0)).putLong(random.getState(1));
+	}
+
+	void read (ByteBuffer buffer) {
+		poolType = Snapshot.types[buffer.get()];
+		type = Snapshot.types[buffer.get()];
+		super.read(buffer);
+		deathTimer = buffer.getFloat();
+		maxVelocityGroundX = buffer.getFloat();
+		collisionTimer = buffer.getFloat();
+		jumpDelayTimer = buffer.getFloat();
+		jumpDistance = buffer.getFloat();
+		jumpDelay = buffer.getFloat();
+		size = buffer.getFloat();
+		bigTimer = buffer.getFloat();
+		spawnSmallsTimer = buffer.getFloat();
+		int flags = buffer.get();
+		move = (flags & 1) != 0;
+		forceJump = (flags & 2) != 0;
+		spawnSmalls = (flags & 4) != 0;
+		wasGrounded = (flags & 8) != 0;
+		collisions = buffer.getInt();
+		knockbackX = buffer.getFloat();
+		knockbackY = buffer.getFloat();
+		lod = buffer.get();
+		lodSkipped = buffer.getInt();
+		random.setState(buffer.getLong(), buffer.getLong());
+	}
+
+	/** Returns a random number between start (inclusive) and end (exclusive). */
+	float random (float start, float end) {
+		return start + random.nextFloat() * (end - start);
 	}
 
 	void update (float delta) {
+		updateAI(delta);
+		updateState(delta);
+		updateVelocity(delta);
+		updatePosition(delta);
+	}
+
+	/** Updates the enemy as often as {@link Model#getLod(Enemy)} allows. Skipped steps are caught up by the next update as one
+	 * step over the time skipped, so a reduced enemy costs one update per {@link Model#lodInterval} steps. The result differs
+	 * from updating every step by the integration error of the longer step, which is bounded since no more than lodInterval steps
+	 * are ever skipped. */
+	void updateLod (float delta) {
+		lod = model.getLod(this);
+		if (lod == lodDormant) {
+			deathTimer -= delta;
+			previousPosition.set(position);
+			lodSkipped = 0;
+			return;
+		}
+		lodSkipped++;
+		if (lod == lodReduced && lodSkipped < lodInterval) return;
+		update(delta * lodSkipped);
+		lodSkipped = 0;
+	}
+
+	/** Returns true if the enemy is a corpse that no longer moves or changes, other than fading out. */
+	boolean isSettled () {
+		return state == State.death && type != Type.becomesBig && spawnSmallsTimer <= 0 && isGrounded() && velocity.isZero()
+			&& corpseTime - deathTimer > corpseSettleTime;
+	}
+
+	/** Updates everything except the character physics. */
+	void updateAI (float delta) {
 		stateChanged = false;
 
 		if (state == State.death) {
@@ -129,19 +248,10 @@ class Enemy extends Character {
 			rect.height = height * size * 0.7f;
 		}
 
-		// Big enemy explodes into small ones.
+		// Big enemy explodes into small ones. The model spawns them after all enemies are updated.
 		if (spawnSmallsTimer > 0) {
 			spawnSmallsTimer -= delta;
-			if (spawnSmallsTimer < 0) {
-				for (int i = 0; i < smallCount; i++) {
-					Enemy small = new Enemy(model, Type.small);
-					small.position.set(position.x, position.y + 2);
-					small.velocity.x = MathUtils.random(5, 15) * (MathUtils.randomBoolean() ? 1 : -1);
-					small.velocity.y = MathUtils.random(10, 25);
-					small.setGrounded(false);
-					model.enemies.add(small);
-				}
-			}
+			if (spawnSmallsTimer < 0) spawnSmalls = true;
 		}
 
 		// Nearly dead enemies jump at the player right away.
@@ -155,13 +265,15 @@ class Enemy extends Character {
 
 		// Simple enemy AI.
 		boolean grounded = isGrounded();
+		wasGrounded = grounded;
 		if (grounded) move = true;
 		collisionTimer -= delta;
 		maxVelocityX = grounded ? maxVelocityGroundX : maxVelocityAirX;
 		if (state == State.death)
 			deathTimer -= delta;
 		else if (collisionTimer < 0) {
-			if (model.player.hp == 0) {
+			Player target = model.getTarget(position.x);
+			if (target == null) {
 				// Enemies win, jump for joy!
 				if (grounded && velocity.x == 0) {
 					jumpVelocity = jumpVelocityNormal / 2;
@@ -169,28 +281,47 @@ class Enemy extends Character {
 					jump();
 				}
 			} else {
-				// Jump if within range of the player.
-				if (grounded && (forceJump || Math.abs(model.player.position.x - position.x) < jumpDistance)) {
+				// Jump if within range of the nearest player.
+				if (grounded && (forceJump || Math.abs(target.position.x - position.x) < jumpDistance)) {
 					jumpDelayTimer -= delta;
-					if (state != State.jump && jumpDelayTimer < 0 && position.y <= model.player.position.y) {
+					if (state != State.jump && jumpDelayTimer < 0 && position.y <= target.position.y) {
 						jump();
-						jumpDelayTimer = MathUtils.random(0, jumpDelay);
+						jumpDelayTimer = random(0, jumpDelay);
 						forceJump = false;
 					}
 				}
-				// Move toward the player.
+				// Move toward the nearest player.
 				if (move) {
-					if (model.player.position.x > position.x) {
+					if (target.position.x > position.x) {
 						if (velocity.x >= 0) moveRight(delta);
 					} else if (velocity.x <= 0) //
 						moveLeft(delta);
 				}
 			}
 		}
+	}
 
+	void updatePosition (float delta) {
+		// The map may not be resident far from the player, so the enemy waits where it is until the player comes closer.
+		if (!model.collisionMap.isSimulated(position.x)) {
+			previousPosition.set(position);
+			return;
+		}
 		int previousCollision = collisions;
-		super.update(delta);
-		if (!grounded || collisions == previousCollision) collisions = 0;
+		super.updatePosition(delta);
+		if (!wasGrounded || collisions == previousCollision) collisions = 0;
+	}
+
+	void spawnSmalls () {
+		spawnSmalls = false;
+		for (int i = 0; i < smallCount; i++) {
+			Enemy small = model.enemyPool.obtain(Type.small);
+			small.setPosition(position.x, position.y + 2);
+			small.velocity.x = (5 + random.nextInt(11)) * (random.nextBoolean() ? 1 : -1);
+			small.velocity.y = 10 + random.nextInt(16);
+			small.setGrounded(false);
+			model.enemies.add(small);
+		}
 	}
 
 	boolean collideX () {
@@ -0,0 +1,97 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Model.State;
+
+import com.badlogic.gdx.utils.Array;
+
+/** Broadphase for point tests against enemies. Living enemies are kept sorted by the x coordinate of their rect, so only the
+ * enemies near a point need to be tested. Enemies move only a little each frame, so the order is restored with an insertion sort
+ * which is close to linear when the list is nearly sorted. */
+class EnemyIndex {
+	Array<Enemy> enemies = new Array(true, 64, Enemy.class);
+	float maxWidth;
+
+	/** Removes dead enemies, adds new living enemies and restores the sort order. */
+	void update (Array<Enemy> all) {
+		Enemy[] items = enemies.items;
+		int size = 0;
+		for (int i = 0, n = enemies.size; i < n; i++) {
+			Enemy enemy = items[i];
+			if (enemy.state == State.death)
+				enemy.indexed = false;
+			else
+				items[size++] = enemy;
+		}
+		enemies.truncate(size);
+
+		for (int i = 0, n = all.size; i < n; i++) {
+			Enemy enemy = all.get(i);
+			if (enemy.indexed || enemy.state == State.death) continue;
+			enemy.indexed = true;
+			enemies.add(enemy);
+		}
+
+		items = enemies.items;
+		float maxWidth = 0;
+		for (int i = 0, n = enemies.size; i < n; i++) {
+			Enemy enemy = items[i];
+			float x = enemy.rect.x;
+			int ii = i - 1;
+			for (; ii >= 0 && items[ii].rect.x > x; ii--)
+				items[ii + 1] = items[ii];
+			items[ii + 1] = enemy;
+			maxWidth = Math.max(maxWidth, enemy.rect.width);
+		}
+		this.maxWidth = maxWidth;
+	}
+
+	/** Returns the index of the first enemy whose rect could contain the x coordinate. Enemies from this index up to the first
+	 * enemy with a rect starting after x are candidates. */
+	int start (float x) {
+		x -= maxWidth;
+		Enemy[] items = enemies.items;
+		int low = 0, high = enemies.size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (items[mid].rect.x < x)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	void clear () {
+		for (int i = 0, n = enemies.size; i < n; i++)
+			enemies.items[i].indexed = false;
+		enemies.clear();
+	}
+}
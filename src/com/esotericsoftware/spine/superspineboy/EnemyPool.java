@@ -0,0 +1,135 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Enemy.Type;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.ByteBuffer;
+
+/** Pools enemies by the type they are spawned as, so spawning doesn't allocate. An enemy keeps its view while pooled, so the
+ * skeleton and animation state are reused too. Every enemy the pool creates gets an id, so events can refer to enemies by id. */
+class EnemyPool {
+	Model model;
+	Array<Enemy>[] free = new Array[Type.values().length];
+	Array<Enemy> all = new Array(true, 64, Enemy.class); // Indexed by enemy id.
+	int created; // Enemies in all past this were created after a restored snapshot and are created again first.
+	int hits, misses;
+
+	EnemyPool (Model model) {
+		this.model = model;
+		for (int i = 0; i < free.length; i++)
+			free[i] = new Array(false, 16, Enemy.class);
+	}
+
+	Enemy obtain (Type type) {
+		Array<Enemy> free = this.free[type.ordinal()];
+		if (free.size == 0) {
+			misses++;
+			return create(type);
+		}
+		hits++;
+		Enemy enemy = free.pop();
+		enemy.generation++;
+		enemy.reset(type);
+		return enemy;
+	}
+
+	void free (Enemy enemy) {
+		free[enemy.poolType.ordinal()].add(enemy);
+	}
+
+	/** Creates enemies until the pool for the type has at least the specified number of free enemies. */
+	void fill (Type type, int count) {
+		Array<Enemy> free = this.free[type.ordinal()];
+		while (free.size < count)
+			free.add(create(type));
+	}
+
+	private Enemy create (Type type) {
+		Enemy enemy;
+		if (created < all.size) {
+			enemy = all.get(created);
+			enemy.generation = 0;
+			enemy.reset(type);
+		} else {
+			enemy = new Enemy(model, type);
+			enemy.id = created;
+			all.add(enemy);
+		}
+		created++;
+		return enemy;
+	}
+
+	/** Writes the free enemies to a snapshot, so the same enemies are obtained in the same order after it is restored. */
+	void write (ByteBuffer buffer) {
+		buffer.putInt(created);
+		for (Array<Enemy> free : this.free) {
+			buffer.putInt(free.size);
+			for (int i = 0, n = free.size; i < n; i++) {
+				Enemy enemy = free.get(i);
+				buffer.putInt(enemy.id).putInt(enemy.generation);
+			}
+		}
+	}
+
+	/** Reads the free enemies from a snapshot. Enemies with ids the pool doesn't have yet are created. */
+	void read (ByteBuffer buffer) {
+		created = buffer.getInt();
+		for (Type type : Snapshot.types) {
+			Array<Enemy> free = this.free[type.ordinal()];
+			free.clear();
+			for (int i = 0, n = buffer.getInt(); i < n; i++) {
+				Enemy enemy = get(buffer.getInt(), type);
+				enemy.generation = buffer.getInt();
+				free.add(enemy);
+			}
+		}
+	}
+
+	/** Returns the enemy with the specified id for a snapshot, creating enemies up to that id if needed. Their state is read from
+	 * the snapshot afterward. */
+	Enemy get (int id, Type type) {
+		while (all.size <= id) {
+			Enemy enemy = new Enemy(model, type);
+			enemy.id = all.size;
+			all.add(enemy);
+		}
+		Enemy enemy = all.items[id];
+		enemy.poolType = type;
+		return enemy;
+	}
+
+	/** Returns the enemy with the specified id. The enemy may have been reused since the id was stored, see
+	 * {@link Enemy#generation}. */
+	Enemy get (int id) {
+		return all.items[id];
+	}
+}
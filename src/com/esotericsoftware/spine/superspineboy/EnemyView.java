@@ -42,6 +42,7 @@ import com.esotericsoftware.spine.superspineboy.Enemy.Type;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 
 /** The view class for an enemy. */
 class EnemyView extends CharacterView {
@@ -49,7 +50,8 @@ class EnemyView extends CharacterView {
 	Animation hitAnimation;
 	Slot headSlot;
 	Attachment burstHeadAttachment;
-	Color headColor;
+	Color headColor = new Color();
+	int generation; // The enemy's generation when the view was reset.
 
 	EnemyView (final View view, Enemy enemy) {
 		super(view);
@@ -66,15 +68,28 @@ class EnemyView extends CharacterView {
 		final EventData squishEvent = view.assets.enemySkeletonData.findEvent("squish");
 		animationState.addListener(new AnimationStateAdapter() {
 			public void event (int trackIndex, Event event) {
-				if (event.getData() == squishEvent) SoundEffect.squish.play();
+				if (event.getData() == squishEvent) {
+					view.sounds.play(SoundEffect.squish, enemy.position.x, enemy.position.y);
+					Rectangle rect = enemy.rect;
+					view.splatEmitter.emit(view.particles, rect.x + rect.width / 2, rect.y + rect.height / 2, 90);
+				}
 			}
 		});
 
+		reset();
+	}
+
+	/** Resets the skeleton and animation state for an enemy that was reused from the pool. */
+	void reset () {
+		generation = enemy.generation;
+		skeleton.setToSetupPose();
+		animationState.clearTracks();
+
 		// Enemies have slight color variations.
 		if (enemy.type == Type.strong)
-			headColor = new Color(1, 0.6f, 1, 1);
+			headColor.set(1, 0.6f, 1, 1);
 		else
-			headColor = new Color(MathUtils.random(0.8f, 1), MathUtils.random(0.8f, 1), MathUtils.random(0.8f, 1), 1);
+			headColor.set(MathUtils.random(0.8f, 1), MathUtils.random(0.8f, 1), MathUtils.random(0.8f, 1), 1);
 		headSlot.getColor().set(headColor);
 	}
 
@@ -85,8 +100,8 @@ class EnemyView extends CharacterView {
 		// Change color for big enemies.
 		if (enemy.type == Type.big) headSlot.getColor().set(headColor).lerp(0, 1, 1, 1, 1 - enemy.bigTimer / Enemy.bigDuration);
 
-		skeleton.setX(enemy.position.x + Enemy.width / 2);
-		skeleton.setY(enemy.position.y);
+		skeleton.setX(enemy.getX(view.alpha) + Enemy.width / 2);
+		skeleton.setY(enemy.getY(view.alpha));
 
 		if (!setAnimation(view.assets.enemyStates.get(enemy.state), enemy.stateChanged)) animationState.update(delta);
 		animationState.apply(skeleton);
@@ -0,0 +1,144 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+/** A fixed capacity ring buffer of the events that occur in the model. The model adds events while it updates and the controller
+ * drains them once per frame, so the model's loops don't call out to sounds and animations. Each event is stored as primitives:
+ * the type, the id and generation of the enemy, a position and a velocity. Hits are throttled to {@link #limits} per frame, so
+ * spread fire can't flood the sounds and particles, and hits that don't fit are dropped. The last {@link #reserved} slots are
+ * kept for player hits and game over, which are never throttled or dropped. */
+class EventQueue {
+	static final int hitPlayer = 0, hitEnemy = 1, hitBullet = 2, gameOver = 3;
+	static final int typeCount = 4;
+	static final int reserved = 16;
+
+	final int[] types, ids, generations;
+	final float[] values; // x, y, vx, vy
+	final int mask;
+	int head, size;
+	boolean enabled = true; // When false, events are not stored, eg when ticks are simulated again.
+
+	final int[] limits = new int[typeCount]; // Maximum number of events of each type stored between drains.
+	final int[] counts = new int[typeCount]; // Number of events of each type stored since the last drain.
+	final int[] added = new int[typeCount]; // Number of events of each type added since the queue was created.
+	final int[] throttled = new int[typeCount], dropped = new int[typeCount]; // Added events that were not stored.
+	int stale, lastDrained; // Stale events refer to an enemy that was reused before the queue was drained.
+
+	/** @param capacity Rounded up to a power of two. Bullet hits are limited to an eighth of it per frame and enemy hits to a
+	 *           quarter. */
+	EventQueue (int capacity) {
+		capacity = Integer.highestOneBit(Math.max(capacity, reserved * 2) - 1) << 1;
+		types = new int[capacity];
+		ids = new int[capacity];
+		generations = new int[capacity];
+		values = new float[capacity * 4];
+		mask = capacity - 1;
+		limits[hitPlayer] = capacity;
+		limits[hitEnemy] = capacity / 4;
+		limits[hitBullet] = capacity / 8;
+		limits[gameOver] = capacity;
+	}
+
+	void add (int type, int id, float x, float y, float vx, float vy) {
+		add(type, id, 0, x, y, vx, vy);
+	}
+
+	void add (int type, int id, int generation, float x, float y, float vx, float vy) {
+		if (!enabled) return;
+		added[type]++;
+		if (counts[type] >= limits[type]) {
+			throttled[type]++;
+			return;
+		}
+		if (size >= (type == hitEnemy || type == hitBullet ? types.length - reserved : types.length)) {
+			dropped[type]++;
+			return;
+		}
+		counts[type]++;
+		int index = (head + size++) & mask;
+		types[index] = type;
+		ids[index] = id;
+		generations[index] = generation;
+		index <<= 2;
+		values[index] = x;
+		values[index + 1] = y;
+		values[index + 2] = vx;
+		values[index + 3] = vy;
+	}
+
+	void add (int type, Enemy enemy, float x, float y, float vx, float vy) {
+		add(type, enemy.id, enemy.generation, x, y, vx, vy);
+	}
+
+	/** Sends the events to the listener, oldest first, and empties the queue. Enemy events are skipped and counted as stale when
+	 * the enemy was reused after the event was added.
+	 * @return The number of events. */
+	int drain (EnemyPool enemyPool, Model.Listener listener) {
+		int count = size;
+		for (; size > 0; size--, head = (head + 1) & mask) {
+			int index = head, valueIndex = index << 2;
+			switch (types[index]) {
+			case hitPlayer: {
+				Enemy enemy = enemyPool.get(ids[index]);
+				if (enemy.generation != generations[index])
+					stale++;
+				else
+					listener.eventHitPlayer(enemy);
+				break;
+			}
+			case hitEnemy: {
+				Enemy enemy = enemyPool.get(ids[index]);
+				if (enemy.generation != generations[index])
+					stale++;
+				else
+					listener.eventHitEnemy(enemy, values[valueIndex], values[valueIndex + 1]);
+				break;
+			}
+			case hitBullet:
+				listener.eventHitBullet(values[valueIndex], values[valueIndex + 1], values[valueIndex + 2],
+					values[valueIndex + 3]);
+				break;
+			case gameOver:
+				listener.eventGameOver(ids[index] != 0);
+				break;
+			}
+		}
+		for (int i = 0; i < typeCount; i++)
+			counts[i] = 0;
+		lastDrained = count;
+		return count;
+	}
+
+	void clear () {
+		head = 0;
+		size = 0;
+		for (int i = 0; i < typeCount; i++)
+			counts[i] = 0;
+	}
+}
@@ -0,0 +1,102 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+
+/** Stands in for a network connection from one peer to another in the same process. Each packet carries the input of the sender's
+ * player for the last few ticks, so a lost packet is covered by the next one that arrives. Packets are delayed by the latency
+ * plus a random jitter and are dropped randomly. */
+class LoopbackTransport {
+	static final int redundancy = 8; // Number of ticks of input in each packet.
+	float latency, jitter, loss;
+	final RandomXS128 random;
+	int sent, dropped;
+
+	private final Array<Packet> packets = new Array();
+	private final Pool<Packet> packetPool = new Pool() {
+		protected Packet newObject () {
+			return new Packet();
+		}
+	};
+
+	/** @param latency Seconds before a packet is delivered.
+	 * @param jitter Maximum additional random seconds before a packet is delivered.
+	 * @param loss Chance between 0 and 1 that a packet is dropped. */
+	LoopbackTransport (float latency, float jitter, float loss, long seed) {
+		this.latency = latency;
+		this.jitter = jitter;
+		this.loss = loss;
+		random = new RandomXS128(seed);
+	}
+
+	/** Sends the inputs for the ticks up to and including the specified tick.
+	 * @param player The index of the sender's player.
+	 * @param history The sender's inputs, indexed by tick. */
+	void send (float time, int player, Array<PlayerInput> history, int tick) {
+		sent++;
+		if (random.nextFloat() < loss) {
+			dropped++;
+			return;
+		}
+		Packet packet = packetPool.obtain();
+		packet.time = time + latency + random.nextFloat() * jitter;
+		packet.player = player;
+		packet.firstTick = Math.max(0, tick - redundancy + 1);
+		packet.count = tick - packet.firstTick + 1;
+		for (int i = 0; i < packet.count; i++)
+			packet.inputs[i].set(history.get(packet.firstTick + i));
+		packets.add(packet);
+	}
+
+	/** Delivers the packets that have arrived by the specified time. */
+	void receive (float time, Rollback rollback) {
+		for (int i = 0; i < packets.size; i++) {
+			Packet packet = packets.get(i);
+			if (packet.time > time) continue; // Jitter can deliver packets out of order.
+			for (int ii = 0; ii < packet.count; ii++)
+				rollback.addInput(packet.player, packet.firstTick + ii, packet.inputs[ii]);
+			packets.removeIndex(i--);
+			packetPool.free(packet);
+		}
+	}
+
+	static class Packet {
+		float time;
+		int player, firstTick, count;
+		final PlayerInput[] inputs = new PlayerInput[redundancy];
+
+		Packet () {
+			for (int i = 0; i < redundancy; i++)
+				inputs[i] = new PlayerInput();
+		}
+	}
+}
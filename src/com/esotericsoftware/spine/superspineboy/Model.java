@@ -28,18 +28,24 @@
 package com.esotericsoftware.spine.superspineboy;
 
 import com.esotericsoftware.spine.superspineboy.Enemy.Type;
+import com.esotericsoftware.spine.superspineboy.Probe.Phase;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.maps.tiled.AtlasTmxMapLoader;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.FloatArray;
-import com.badlogic.gdx.utils.Pools;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /** The core of the game logic. The model manages all game information but knows nothing about the view, ie it knows nothing about
  * how this information might be drawn to the screen. This model-view separation is a clean way to organize the code. */
@@ -49,203 +55,427 @@ class Model {
 	static float fps = 1 / 30f;
 	static float gameOverSlowdown = 5.5f;
 	static int mapCollisionLayer = 0;
+	// The collision map is paged in chunks around the player, as a level too large to keep in memory would be. The tiled map is
+	// still loaded whole to be drawn, so for the game's map this only exercises paging. Set by "--paged".
+	static boolean pagedMap = false;
+	static boolean parallelEnemies = false;
+	static int parallelChunkSize = 64;
+	// Gravity and damping are applied to all enemies in one pass over a CharacterStore. Not used with LOD, since enemies updated
+	// at a reduced rate each integrate over a different time.
+	static boolean batchIntegration = false;
+	// Enemies far from the player are updated less often.
+	static boolean enemyLod = false;
+	static float lodActiveDistance = 24, lodDormantDistance = 64, lodBulletDistance = 4;
+	// At 60 steps per second, an enemy at maximum velocity moves less than a tile in 3 steps, so it can't pass through the map.
+	static int lodInterval = 3;
+	static int maxCorpses = 100;
+	static float playerSpacing = 1.5f;
+	// When this many bullets exist, new bullets replace old ones, else they are not fired.
+	static int maxBullets = 100000;
+	static boolean replaceBullets = true;
 
-	SuperSpineboy controller;
+	// Each player has an input. The first player is the one the view follows and the paged map is loaded around.
+	Array<Player> players = new Array(true, 4, Player.class);
+	Array<PlayerInput> inputs = new Array(true, 4, PlayerInput.class);
 	Player player;
+	PlayerInput input = new PlayerInput();
+	int playerCount = 1; // Takes effect when the model is restarted.
+	// All random numbers in the model come from this seed, so the same seed and input reproduce the same game.
+	RandomXS128 random = new RandomXS128();
+	long seed;
 	TiledMap map;
-	TiledMapTileLayer collisionLayer;
-	Array<Rectangle> tiles = new Array();
+	CollisionMap collisionMap;
 	float timeScale = 1;
 	Array<Trigger> triggers = new Array();
-	FloatArray bullets = new FloatArray();
+	int triggerIndex;
+	Bullets bullets = new Bullets(maxBullets, replaceBullets);
+	EventQueue events = new EventQueue(1024);
 	Array<Enemy> enemies = new Array();
+	Array<Enemy> corpses = new Array(true, 64, Enemy.class); // Dead enemies that no longer move, oldest first.
+	EnemyIndex enemyIndex = new EnemyIndex();
+	CharacterStore characterStore = new CharacterStore();
+	EnemyPool enemyPool = new EnemyPool(this);
 	Vector2 temp = new Vector2();
 	float gameOverTimer;
+	int activeEnemies, reducedEnemies, dormantEnemies;
+	Probe probe; // Told when each phase of a step begins, or null.
 
-	Model (SuperSpineboy controller) {
-		this.controller = controller;
-
+	Model () {
 		map = new AtlasTmxMapLoader().load("map/map.tmx");
-		collisionLayer = (TiledMapTileLayer)map.getLayers().get(mapCollisionLayer);
+		collisionMap = new CollisionMap((TiledMapTileLayer)map.getLayers().get(mapCollisionLayer));
+		if (pagedMap) collisionMap = CollisionMap.paged(collisionMap);
+		loadTriggers(Gdx.files.internal("map/triggers.json"));
+		fillEnemyPool();
+
+		restart();
+	}
+
+	/** Creates a model without the tiled map, which needs a GL context to load its textures. The model can be updated but not
+	 * drawn. */
+	Model (CollisionMap collisionMap, FileHandle triggersFile) {
+		this.collisionMap = collisionMap;
+		loadTriggers(triggersFile);
+		fillEnemyPool();
 
 		restart();
 	}
 
+	/** Stops loading the collision map's chunks if it is paged. */
+	void dispose () {
+		collisionMap.dispose();
+	}
+
 	void restart () {
-		player = new Player(this);
-		player.position.set(4, 8);
+		restart(MathUtils.random.nextLong());
+	}
+
+	void restart (long seed) {
+		this.seed = seed;
+		random.setSeed(seed);
+		events.clear();
+
+		players.clear();
+		setPlayers(playerCount);
+		for (int i = 0; i < playerCount; i++) {
+			inputs.get(i).clear();
+			players.get(i).setPosition(4 + i * playerSpacing, 8);
+		}
 
 		bullets.clear();
+		enemyIndex.clear();
+		for (int i = 0, n = enemies.size; i < n; i++)
+			enemyPool.free(enemies.get(i));
 		enemies.clear();
+		for (int i = 0, n = corpses.size; i < n; i++)
+			enemyPool.free(corpses.get(i));
+		corpses.clear();
 		gameOverTimer = 0;
 
-		// Setup triggers to spawn enemies based on the x coordinate of the player.
+		triggerIndex = 0;
+	}
+
+	/** Creates or removes players and their inputs so there are the specified number, keeping the existing ones. */
+	void setPlayers (int count) {
+		while (inputs.size < count)
+			inputs.add(inputs.size == 0 ? input : new PlayerInput());
+		inputs.truncate(count);
+		while (players.size < count)
+			players.add(new Player(this));
+		players.truncate(count);
+		player = players.first();
+	}
+
+	/** Loads the triggers that spawn enemies based on the x coordinate of the player and sorts them by x. */
+	void loadTriggers (FileHandle file) {
 		triggers.clear();
-		addTrigger(17, 17 + 22, 8, Type.normal, 2);
-		addTrigger(17, 17 + 22, 8, Type.strong, 1);
-		addTrigger(31, 31 + 22, 8, Type.normal, 3);
-		addTrigger(43, 43 + 22, 8, Type.strong, 3);
-		addTrigger(64, 64 + 22, 8, Type.normal, 10);
-		addTrigger(64, 64 + 29, 8, Type.strong, 1);
-		addTrigger(76, 76 - 19, 8, Type.strong, 2);
-		addTrigger(87, 87 - 19, 8, Type.normal, 2);
-		addTrigger(97, 97 - 19, 8, Type.normal, 2);
-		addTrigger(100, 100 + 34, 8, Type.strong, 2);
-		addTrigger(103, 103 + 34, 8, Type.normal, 4);
-		addTrigger(125, 60 - 19, 8, Type.normal, 10);
-		addTrigger(125, 125 - 19, 8, Type.weak, 10);
-		addTrigger(125, 125 - 45, 8, Type.becomesBig, 1);
-		addTrigger(125, 125 + 22, 22, Type.normal, 5);
-		addTrigger(125, 125 + 32, 22, Type.normal, 2);
-		addTrigger(125, 220, 23, Type.strong, 3);
-		addTrigger(158, 158 - 19, 8, Type.weak, 10);
-		addTrigger(158, 158 - 23, 8, Type.strong, 1);
-		addTrigger(158, 158 + 22, 23, Type.normal, 3);
-		addTrigger(165, 165 + 22, 23, Type.strong, 4);
-		addTrigger(176, 176 + 22, 23, Type.normal, 12);
-		addTrigger(176, 176 + 22, 23, Type.weak, 10);
-		addTrigger(176, 151, 8, Type.strong, 1);
-		addTrigger(191, 191 - 19, 23, Type.normal, 5);
-		addTrigger(191, 191 - 19, 23, Type.weak, 15);
-		addTrigger(191, 191 - 27, 23, Type.strong, 2);
-		addTrigger(191, 191 + 34, 23, Type.weak, 10);
-		addTrigger(191, 191 + 34, 23, Type.weak, 8);
-		addTrigger(191, 191 + 34, 23, Type.normal, 2);
-		addTrigger(191, 191 + 42, 23, Type.strong, 2);
-		addTrigger(213, 213 + 22, 23, Type.normal, 3);
-		addTrigger(213, 213 + 22, 23, Type.strong, 3);
-		addTrigger(213, 213 - 19, 23, Type.normal, 7);
-		addTrigger(246, 247 - 30, 23, Type.strong, 7);
-		addTrigger(246, 225, 23, Type.normal, 2);
-		addTrigger(246, 220, 23, Type.becomesBig, 3);
+		for (JsonValue value = new JsonReader().parse(file).child; value != null; value = value.next) {
+			Trigger trigger = new Trigger();
+			trigger.x = value.getFloat("x");
+			trigger.spawnX = value.getFloat("spawnX");
+			trigger.spawnY = value.getFloat("spawnY");
+			trigger.type = Type.valueOf(value.getString("type"));
+			trigger.count = value.getInt("count", 1);
+			triggers.add(trigger);
+		}
+		triggers.sort(); // Stable, so triggers with the same x fire in the order they are defined.
+	}
+
+	/** Fills the enemy pool with enough enemies for every trigger, so spawning doesn't allocate during the game. */
+	void fillEnemyPool () {
+		int[] counts = new int[Type.values().length];
+		for (Trigger trigger : triggers) {
+			counts[trigger.type.ordinal()] += trigger.count;
+			if (trigger.type == Type.becomesBig) counts[Type.small.ordinal()] += trigger.count * (int)Enemy.smallCount;
+		}
+		for (Type type : Type.values())
+			enemyPool.fill(type, counts[type.ordinal()]);
 	}
 
-	void addTrigger (float triggerX, float spawnX, float spawnY, Type type, int count) {
-		Trigger trigger = new Trigger();
-		trigger.x = triggerX;
-		triggers.add(trigger);
-		int offset = spawnX > triggerX ? 2 : -2;
-		for (int i = 0; i < count; i++) {
-			Enemy enemy = new Enemy(this, type);
-			enemy.position.set(spawnX, spawnY);
-			trigger.enemies.add(enemy);
+	/** Spawns the enemies for a trigger. Enemies are only created when their trigger fires. */
+	void spawnEnemies (Trigger trigger) {
+		float spawnX = trigger.spawnX;
+		int offset = spawnX > trigger.x ? 2 : -2;
+		for (int i = 0; i < trigger.count; i++) {
+			Enemy enemy = enemyPool.obtain(trigger.type);
+			enemy.setPosition(spawnX, trigger.spawnY);
+			enemies.add(enemy);
 			spawnX += offset;
 		}
 	}
 
 	void update (float delta) {
-		if (player.hp == 0) {
+		Probe probe = this.probe;
+		if (probe != null) probe.begin(Phase.paging);
+		collisionMap.update(player.position.x);
+		if (probe != null) probe.begin(Phase.control);
+		if (isLost()) {
 			gameOverTimer += delta / getTimeScale() * timeScale; // Isn't affected by player death time scaling.
-			controller.eventGameOver(false);
+			events.add(EventQueue.gameOver, 0, 0, 0, 0, 0);
+		} else {
+			for (int i = 0, n = players.size; i < n; i++) {
+				Player player = players.get(i);
+				if (player.hp > 0) player.applyInput(inputs.get(i), delta);
+			}
 		}
+		if (probe != null) probe.begin(Phase.corpses);
+		updateCorpses(delta);
+		if (probe != null) probe.begin(Phase.enemies);
 		updateEnemies(delta);
+		if (probe != null) probe.begin(Phase.bullets);
 		updateBullets(delta);
-		player.update(delta);
+		if (probe != null) probe.begin(Phase.player);
+		for (int i = 0, n = players.size; i < n; i++)
+			players.get(i).update(delta);
+		if (probe != null) probe.begin(Phase.triggers);
 		updateTriggers();
 	}
 
 	void updateTriggers () {
-		for (int i = 0, n = triggers.size; i < n; i++) {
-			Trigger trigger = triggers.get(i);
-			if (player.position.x > trigger.x) {
-				enemies.addAll(trigger.enemies);
-				triggers.removeIndex(i);
-				break;
-			}
+		// Triggers fire when the player farthest along passes them.
+		float x = -Float.MAX_VALUE;
+		for (int i = 0, n = players.size; i < n; i++)
+			x = Math.max(x, players.get(i).position.x);
+		// Triggers are sorted by x, so every trigger the player has passed is before the first one that hasn't been reached.
+		while (triggerIndex < triggers.size) {
+			Trigger trigger = triggers.get(triggerIndex);
+			if (x <= trigger.x) break;
+			spawnEnemies(trigger);
+			triggerIndex++;
 		}
 	}
 
 	void updateEnemies (float delta) {
+		// All enemies are updated before collisions with the player are resolved. An enemy's update only reads the player and the
+		// map and changes only that enemy, so the updates can happen in any order or in parallel with the same results.
+		int count = enemies.size;
+		if (enemyLod)
+			markBulletNear();
+		else if (batchIntegration) //
+			characterStore.ensureCapacity(count);
+		if (parallelEnemies && count > parallelChunkSize)
+			ForkJoinPool.commonPool().invoke(new UpdateEnemies(this, 0, count, delta));
+		else
+			updateEnemies(0, count, delta);
+
+		// Interactions with the player and the rest of the model happen in a fixed order. Enemies added here (eg smalls) are at
+		// the end of the list and are not updated until the next frame.
 		int alive = 0;
-		for (int i = enemies.size - 1; i >= 0; i--) {
+		activeEnemies = 0;
+		reducedEnemies = 0;
+		dormantEnemies = 0;
+		for (int i = count - 1; i >= 0; i--) {
 			Enemy enemy = enemies.get(i);
-			enemy.update(delta);
 			if (enemy.deathTimer < 0) {
 				enemies.removeIndex(i);
+				enemyPool.free(enemy);
 				continue;
 			}
+			if (enemy.isSettled()) {
+				// Corpses that no longer move are kept separately, so only living enemies are iterated.
+				enemies.removeIndex(i);
+				corpses.add(enemy);
+				continue;
+			}
+			if (enemy.lod == Enemy.lodActive)
+				activeEnemies++;
+			else if (enemy.lod == Enemy.lodReduced)
+				reducedEnemies++;
+			else
+				dormantEnemies++;
+			if (enemy.spawnSmalls) enemy.spawnSmalls();
 			if (enemy.hp > 0) alive++;
-			if (enemy.hp > 0 && player.hp > 0) {
-				if (enemy.collisionTimer < 0 && enemy.rect.overlaps(player.rect)) {
-					if (enemy.rect.y + enemy.rect.height * 0.6f < player.rect.y) {
-						// Enemy head bounce.
-						float bounceX = Player.headBounceX
-							* (enemy.position.x + enemy.rect.width / 2 < player.position.x + player.rect.width / 2 ? 1 : -1);
-
-						enemy.collisionTimer = Enemy.collisionDelay;
-						enemy.velocity.x -= bounceX;
-						enemy.velocity.y -= 10f;
-						enemy.setGrounded(false);
-						enemy.hp -= 2;
-						if (enemy.hp <= 0)
-							enemy.state = State.death;
-						else
-							enemy.state = State.fall;
-
-						player.velocity.x = bounceX;
-						player.velocity.y = Player.headBounceY;
-						player.setGrounded(false);
-						player.setState(State.fall);
-
-						controller.eventHitEnemy(enemy);
-
-					} else if (player.collisionTimer < 0) {
-						// Player gets hit.
-						player.dir = enemy.position.x + enemy.rect.width / 2 < player.position.x + player.rect.width / 2 ? -1 : 1;
-						float amount = Player.knockbackX * player.dir;
-						player.velocity.x = -amount;
-						player.velocity.y += Player.knockbackY;
-						player.setGrounded(false);
-						player.hp--;
-						if (player.hp > 0) {
-							player.setState(State.fall);
-							player.collisionTimer = Player.collisionDelay;
-
-							enemy.velocity.x = amount * 1.6f;
-							enemy.velocity.y += 5f;
-							enemy.setState(State.fall);
-							enemy.jumpDelayTimer = MathUtils.random(0, enemy.jumpDelay);
-						} else {
-							player.setState(State.death);
-							player.velocity.y *= 0.5f;
-						}
-						enemy.setGrounded(false);
-						enemy.collisionTimer = Enemy.collisionDelay;
-
-						controller.eventHitPlayer(enemy);
-					}
-				}
+			for (int ii = 0, nn = players.size; ii < nn && enemy.hp > 0; ii++) {
+				Player player = players.get(ii);
+				if (player.hp > 0 && enemy.collisionTimer < 0 && enemy.rect.overlaps(player.rect)) collide(enemy, player);
 			}
 		}
 		// End the game when all enemies are dead and all triggers have occurred.
-		if (alive == 0 && triggers.size == 0) controller.eventGameOver(true);
+		if (alive == 0 && triggerIndex == triggers.size) events.add(EventQueue.gameOver, 1, 0, 0, 0, 0);
 	}
 
-	void updateBullets (float delta) {
-		outer:
-		for (int i = bullets.size - 5; i >= 0; i -= 5) {
-			float vx = bullets.get(i);
-			float vy = bullets.get(i + 1);
-			float x = bullets.get(i + 2);
-			float y = bullets.get(i + 3);
-			if (collisionLayer.getCell((int)x, (int)y) != null) {
-				// Bullet hit map.
-				controller.eventHitBullet(x, y, vx, vy);
-				bullets.removeRange(i, i + 4);
-				continue;
+	/** Resolves an enemy touching a player: the player either bounces on the enemy's head or gets hit. */
+	void collide (Enemy enemy, Player player) {
+		if (enemy.rect.y + enemy.rect.height * 0.6f < player.rect.y) {
+			// Enemy head bounce.
+			float bounceX = Player.headBounceX
+				* (enemy.position.x + enemy.rect.width / 2 < player.position.x + player.rect.width / 2 ? 1 : -1);
+
+			enemy.collisionTimer = Enemy.collisionDelay;
+			enemy.velocity.x -= bounceX;
+			enemy.velocity.y -= 10f;
+			enemy.setGrounded(false);
+			enemy.hp -= 2;
+			if (enemy.hp <= 0)
+				enemy.state = State.death;
+			else
+				enemy.state = State.fall;
+
+			player.velocity.x = bounceX;
+			player.velocity.y = Player.headBounceY;
+			player.setGrounded(false);
+			player.setState(State.fall);
+
+			events.add(EventQueue.hitEnemy, enemy, enemy.position.x + enemy.rect.width / 2, enemy.position.y + enemy.rect.height,
+				player.velocity.x, player.velocity.y);
+
+		} else if (player.collisionTimer < 0) {
+			// Player gets hit.
+			player.dir = enemy.position.x + enemy.rect.width / 2 < player.position.x + player.rect.width / 2 ? -1 : 1;
+			float amount = Player.knockbackX * player.dir;
+			player.velocity.x = -amount;
+			player.velocity.y += Player.knockbackY;
+			player.setGrounded(false);
+			player.hp--;
+			if (player.hp > 0) {
+				player.setState(State.fall);
+				player.collisionTimer = Player.collisionDelay;
+
+				enemy.velocity.x = amount * 1.6f;
+				enemy.velocity.y += 5f;
+				enemy.setState(State.fall);
+				enemy.jumpDelayTimer = enemy.random(0, enemy.jumpDelay);
+			} else {
+				player.setState(State.death);
+				player.velocity.y *= 0.5f;
 			}
-			if (Math.abs(x - player.position.x) > 25) {
-				// Bullet traveled too far.
-				bullets.removeRange(i, i + 4);
-				continue;
+			enemy.setGrounded(false);
+			enemy.collisionTimer = Enemy.collisionDelay;
+
+			events.add(EventQueue.hitPlayer, enemy, player.position.x + player.rect.width / 2, player.position.y,
+				player.velocity.x, player.velocity.y);
+		}
+	}
+
+	/** Counts down the time until corpses fade out and frees them when it runs out. When there are more than
+	 * {@link #maxCorpses}, the oldest are freed. */
+	void updateCorpses (float delta) {
+		Enemy[] items = corpses.items;
+		int evict = corpses.size - maxCorpses, size = 0;
+		for (int i = 0, n = corpses.size; i < n; i++) {
+			Enemy corpse = items[i];
+			corpse.deathTimer -= delta;
+			if (corpse.deathTimer < 0 || i < evict)
+				enemyPool.free(corpse);
+			else
+				items[size++] = corpse;
+		}
+		corpses.truncate(size);
+	}
+
+	/** Updates the enemies from start (inclusive) to end (exclusive). */
+	void updateEnemies (int start, int end, float delta) {
+		if (enemyLod) {
+			for (int i = start; i < end; i++)
+				enemies.get(i).updateLod(delta);
+		} else if (batchIntegration) {
+			// The same steps as Enemy#update, with each step done for the whole range before the next.
+			for (int i = start; i < end; i++) {
+				Enemy enemy = enemies.get(i);
+				enemy.updateAI(delta);
+				enemy.updateState(delta);
 			}
-			for (Enemy enemy : enemies) {
-				if (enemy.state == State.death) continue;
-				if (enemy.bigTimer <= 0 && enemy.rect.contains(x, y)) {
+			CharacterStore store = characterStore;
+			store.load(enemies, start, end);
+			store.integrate(start, end, delta);
+			store.store(enemies, start, end);
+			for (int i = start; i < end; i++)
+				enemies.get(i).updatePosition(delta);
+		} else {
+			for (int i = start; i < end; i++)
+				enemies.get(i).update(delta);
+		}
+	}
+
+	/** Returns how often an enemy is updated. Enemies near the player or a bullet are updated every step. Farther away they are
+	 * updated once per {@link #lodInterval} steps. Corpses beyond {@link #lodDormantDistance} or that have settled are not
+	 * updated at all. Distances are to the nearest player. Living enemies are never dormant, since they chase the players from
+	 * any distance, eg waves spawned behind the player. */
+	int getLod (Enemy enemy) {
+		float x = enemy.position.x + enemy.rect.width / 2, distance = Float.MAX_VALUE;
+		for (int i = 0, n = players.size; i < n; i++) {
+			Player player = players.get(i);
+			distance = Math.min(distance, Math.abs(x - (player.position.x + player.rect.width / 2)));
+		}
+		if (distance <= lodActiveDistance || enemy.bulletNear) return Enemy.lodActive;
+		if (enemy.isSettled() || (distance > lodDormantDistance && isCorpse(enemy))) return Enemy.lodDormant;
+		return Enemy.lodReduced;
+	}
+
+	/** Returns true if the enemy is dead and won't come back, as a big enemy or as smalls. */
+	private boolean isCorpse (Enemy enemy) {
+		return enemy.state == State.death && enemy.type != Type.becomesBig && enemy.type != Type.big
+			&& enemy.spawnSmallsTimer <= 0;
+	}
+
+	/** Marks the living enemies within {@link #lodBulletDistance} of a bullet. Each bullet only tests the enemies the x sorted
+	 * index returns for its x coordinate. Dead enemies can't be hit, so they are not in the index and are never marked. */
+	private void markBulletNear () {
+		for (int i = 0, n = enemies.size; i < n; i++)
+			enemies.get(i).bulletNear = false;
+		if (bullets.size == 0) return;
+
+		enemyIndex.update(enemies);
+		Enemy[] sorted = enemyIndex.enemies.items;
+		int sortedCount = enemyIndex.enemies.size;
+		float distance = lodBulletDistance;
+		float[] bulletX = bullets.x, bulletY = bullets.y;
+		for (int i = 0, n = bullets.size; i < n; i++) {
+			float x = bulletX[i], y = bulletY[i];
+			for (int ii = enemyIndex.start(x - distance); ii < sortedCount; ii++) {
+				Rectangle rect = sorted[ii].rect;
+				if (rect.x - distance > x) break;
+				if (x <= rect.x + rect.width + distance && y >= rect.y - distance && y <= rect.y + rect.height + distance)
+					sorted[ii].bulletNear = true;
+			}
+		}
+	}
+
+	void updateBullets (float delta) {
+		// Only enemies with a rect near the bullet's x coordinate need to be tested.
+		enemyIndex.update(enemies);
+		Enemy[] sorted = enemyIndex.enemies.items;
+		int sortedCount = enemyIndex.enemies.size;
+		// Removing a bullet moves the last bullet into its place, which has already been updated when iterating backward.
+		Bullets bullets = this.bullets;
+		float[] bulletVX = bullets.vx, bulletVY = bullets.vy, bulletX = bullets.x, bulletY = bullets.y;
+		for (int i = bullets.size - 1; i >= 0; i--) {
+			float vx = bulletVX[i];
+			float vy = bulletVY[i];
+			float x = bulletX[i];
+			float y = bulletY[i];
+			float dx = vx * delta, dy = vy * delta;
+
+			// Find the nearest map tile or enemy hit along the segment the bullet travels this frame. The candidates come in x
+			// order, so enemies entered at the same time, eg when the bullet starts inside overlapping rects, are ordered by how
+			// far along the ray their centers are rather than by x.
+			float hitTime = collisionMap.raycast(x, y, dx, dy);
+			Enemy hitEnemy = null;
+			float hitDepth = 0;
+			float minX = Math.min(x, x + dx), maxX = Math.max(x, x + dx);
+			for (int ii = enemyIndex.start(minX); ii < sortedCount; ii++) {
+				Enemy enemy = sorted[ii];
+				Rectangle rect = enemy.rect;
+				if (rect.x > maxX) break;
+				if (enemy.state == State.death || enemy.bigTimer > 0) continue;
+				float time = raycast(rect, x, y, dx, dy);
+				if (time > hitTime) continue;
+				float depth = (rect.x + rect.width / 2 - x) * dx + (rect.y + rect.height / 2 - y) * dy;
+				if (time < hitTime || (hitEnemy != null && depth < hitDepth)) {
+					hitTime = time;
+					hitEnemy = enemy;
+					hitDepth = depth;
+				}
+			}
+
+			if (hitTime <= 1) {
+				x += dx * hitTime;
+				y += dy * hitTime;
+				bullets.remove(i);
+				events.add(EventQueue.hitBullet, 0, x, y, vx, vy);
+				if (hitEnemy != null) {
 					// Bullet hit enemy.
-					bullets.removeRange(i, i + 4);
-					controller.eventHitBullet(x, y, vx, vy);
-					controller.eventHitEnemy(enemy);
+					Enemy enemy = hitEnemy;
+					events.add(EventQueue.hitEnemy, enemy, x, y, vx, vy);
 					enemy.collisionTimer = Enemy.collisionDelay;
 					enemy.hp--;
 					if (enemy.hp <= 0) {
@@ -253,56 +483,155 @@ class Model {
 						enemy.velocity.y *= 0.5f;
 					} else
 						enemy.state = State.fall;
-					enemy.velocity.x = MathUtils.random(enemy.knockbackX / 2, enemy.knockbackX)
+					enemy.velocity.x = enemy.random(enemy.knockbackX / 2, enemy.knockbackX)
 						* (player.position.x < enemy.position.x + enemy.rect.width / 2 ? 1 : -1);
-					enemy.velocity.y += MathUtils.random(enemy.knockbackY / 2, enemy.knockbackY);
-					continue outer;
+					enemy.velocity.y += enemy.random(enemy.knockbackY / 2, enemy.knockbackY);
 				}
+				continue;
 			}
-			x += vx * delta;
-			y += vy * delta;
-			bullets.set(i + 2, x);
-			bullets.set(i + 3, y);
+			if (Math.abs(x - player.position.x) > 25) {
+				// Bullet traveled too far.
+				bullets.remove(i);
+				continue;
+			}
+			bulletX[i] = x + dx;
+			bulletY[i] = y + dy;
 		}
 	}
 
+	/** Returns the fraction of the segment from x,y to x + dx,y + dy where it first enters the rectangle, 0 if it starts inside
+	 * the rectangle, or infinity if it misses the rectangle. */
+	static float raycast (Rectangle rect, float x, float y, float dx, float dy) {
+		float enter = 0, exit = 1;
+		if (dx != 0) {
+			float t1 = (rect.x - x) / dx, t2 = (rect.x + rect.width - x) / dx;
+			enter = Math.max(enter, Math.min(t1, t2));
+			exit = Math.min(exit, Math.max(t1, t2));
+		} else if (x < rect.x || x > rect.x + rect.width) //
+			return Float.POSITIVE_INFINITY;
+		if (dy != 0) {
+			float t1 = (rect.y - y) / dy, t2 = (rect.y + rect.height - y) / dy;
+			enter = Math.max(enter, Math.min(t1, t2));
+			exit = Math.min(exit, Math.max(t1, t2));
+		} else if (y < rect.y || y > rect.y + rect.height) //
+			return Float.POSITIVE_INFINITY;
+		return enter <= exit ? enter : Float.POSITIVE_INFINITY;
+	}
+
 	void addBullet (float startX, float startY, float vx, float vy, float angle) {
-		bullets.add(vx);
-		bullets.add(vy);
-		bullets.add(startX);
-		bullets.add(startY);
-		bullets.add(angle);
+		bullets.add(startX, startY, vx, vy, angle);
 	}
 
-	/** Returns rectangles for the tiles within the specified area. */
-	Array<Rectangle> getCollisionTiles (int startX, int startY, int endX, int endY) {
-		Pools.freeAll(tiles, true);
-		tiles.clear();
-		for (int y = startY; y <= endY; y++) {
-			for (int x = startX; x <= endX; x++) {
-				Cell cell = collisionLayer.getCell(x, y);
-				if (cell != null) {
-					Rectangle rect = Pools.obtain(Rectangle.class);
-					rect.set(x, y, 1, 1);
-					tiles.add(rect);
-				}
+	/** Returns true when every player is dead. */
+	boolean isLost () {
+		for (int i = 0, n = players.size; i < n; i++)
+			if (players.get(i).hp > 0) return false;
+		return true;
+	}
+
+	/** Returns the living player nearest to the x coordinate, or null if every player is dead. The first player is preferred when
+	 * two are equally near, so the choice doesn't depend on the order of anything but the players. */
+	Player getTarget (float x) {
+		Player target = null;
+		float targetDistance = Float.MAX_VALUE;
+		for (int i = 0, n = players.size; i < n; i++) {
+			Player player = players.get(i);
+			if (player.hp == 0) continue;
+			float distance = Math.abs(player.position.x - x);
+			if (distance < targetDistance) {
+				target = player;
+				targetDistance = distance;
 			}
 		}
-		return tiles;
+		return target;
 	}
 
 	float getTimeScale () {
-		if (player.hp == 0)
+		if (isLost())
 			return timeScale * Interpolation.pow2In.apply(0, 1, MathUtils.clamp(gameOverTimer / gameOverSlowdown, 0.01f, 1));
 		return timeScale;
 	}
 
+	/** Returns a hash of the simulation state, used to check that a replay reproduces a game exactly. The game over timer is not
+	 * included because it depends on the time scale set by the UI. */
+	long getStateHash () {
+		long hash = triggerIndex;
+		for (int i = 0, n = players.size; i < n; i++)
+			hash = hash(hash, players.get(i));
+		for (int i = 0, n = enemies.size; i < n; i++) {
+			Enemy enemy = enemies.get(i);
+			hash = hash(hash, enemy);
+			hash = hash * 31 + enemy.type.ordinal();
+			hash = hash * 31 + Float.floatToIntBits(enemy.deathTimer);
+		}
+		for (int i = 0, n = corpses.size; i < n; i++) {
+			Enemy corpse = corpses.get(i);
+			hash = hash(hash, corpse);
+			hash = hash * 31 + Float.floatToIntBits(corpse.deathTimer);
+		}
+		hash = bullets.hash(hash);
+		hash = hash * 31 + random.getState(0);
+		return hash * 31 + random.getState(1);
+	}
+
+	static private long hash (long hash, Character character) {
+		hash = hash * 31 + Float.floatToIntBits(character.position.x);
+		hash = hash * 31 + Float.floatToIntBits(character.position.y);
+		hash = hash * 31 + Float.floatToIntBits(character.velocity.x);
+		hash = hash * 31 + Float.floatToIntBits(character.velocity.y);
+		hash = hash * 31 + Float.floatToIntBits(character.hp);
+		hash = hash * 31 + Float.floatToIntBits(character.dir);
+		return hash * 31 + character.state.ordinal();
+	}
+
+	/** Updates chunks of enemies in parallel. */
+	static class UpdateEnemies extends RecursiveAction {
+		final Model model;
+		final int start, end;
+		final float delta;
+
+		UpdateEnemies (Model model, int start, int end, float delta) {
+			this.model = model;
+			this.start = start;
+			this.end = end;
+			this.delta = delta;
+		}
+
+		protected void compute () {
+			if (end - start <= parallelChunkSize) {
+				model.updateEnemies(start, end, delta);
+				return;
+			}
+			int middle = (start + end) >>> 1;
+			invokeAll(new UpdateEnemies(model, start, middle, delta), new UpdateEnemies(model, middle, end, delta));
+		}
+	}
+
+	/** Receives events that occur in the model when the {@link EventQueue} is drained. */
+	interface Listener {
+		void eventHitPlayer (Enemy enemy);
+
+		/** @param x The position of the hit.
+		 * @param y The position of the hit. */
+		void eventHitEnemy (Enemy enemy, float x, float y);
+
+		void eventHitBullet (float x, float y, float vx, float vy);
+
+		void eventGameOver (boolean win);
+	}
+
 	enum State {
 		idle, run, jump, death, fall
 	}
 
-	static class Trigger {
+	static class Trigger implements Comparable<Trigger> {
 		float x;
-		Array<Enemy> enemies = new Array();
+		float spawnX, spawnY;
+		Type type;
+		int count;
+
+		public int compareTo (Trigger other) {
+			return Float.compare(x, other.x);
+		}
 	}
 }
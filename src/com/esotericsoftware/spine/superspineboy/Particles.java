@@ -0,0 +1,212 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static com.esotericsoftware.spine.superspineboy.BulletMesh.*;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.NumberUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/** A fixed number of particles stored as columns in a direct buffer, one column per value, so there is no object per particle and
+ * nothing is allocated after creation. An expired particle is replaced by the last particle. Particles are square, fade out over
+ * their life and all use the same region, so they are drawn without per particle draw calls. When full, new particles are
+ * dropped and counted. */
+class Particles {
+	// Columns.
+	static final int time = 0, life = 1, x = 2, y = 3, vx = 4, vy = 5, gravity = 6, drag = 7, angle = 8, spin = 9, size = 10,
+		growth = 11, color = 12;
+	static final int columns = 13;
+
+	final int capacity;
+	final FloatBuffer data;
+	final float[] vertices;
+	int count, vertexCount, dropped;
+
+	Particles (int capacity) {
+		this.capacity = capacity;
+		data = ByteBuffer.allocateDirect(capacity * columns * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+		vertices = new float[capacity * quadSize];
+	}
+
+	/** @param time The life in seconds.
+	 * @param gravity Acceleration down in units per second squared.
+	 * @param drag Fraction of the velocity lost per second.
+	 * @param growth Change in size per second.
+	 * @param color A packed color. Its alpha is replaced as the particle fades.
+	 * @return The index of the new particle, or -1 if there is no room. */
+	int add (float time, float x, float y, float vx, float vy, float gravity, float drag, float angle, float spin, float size,
+		float growth, float color) {
+		if (count == capacity) {
+			dropped++;
+			return -1;
+		}
+		int index = count++, capacity = this.capacity;
+		FloatBuffer data = this.data;
+		data.put(index, time);
+		data.put(Particles.life * capacity + index, time);
+		data.put(Particles.x * capacity + index, x);
+		data.put(Particles.y * capacity + index, y);
+		data.put(Particles.vx * capacity + index, vx);
+		data.put(Particles.vy * capacity + index, vy);
+		data.put(Particles.gravity * capacity + index, gravity);
+		data.put(Particles.drag * capacity + index, drag);
+		data.put(Particles.angle * capacity + index, angle);
+		data.put(Particles.spin * capacity + index, spin);
+		data.put(Particles.size * capacity + index, size);
+		data.put(Particles.growth * capacity + index, growth);
+		data.put(Particles.color * capacity + index, color);
+		return index;
+	}
+
+	float get (int column, int index) {
+		return data.get(column * capacity + index);
+	}
+
+	/** Moves the last particle to the specified index. */
+	void remove (int index) {
+		FloatBuffer data = this.data;
+		int last = --count;
+		for (int column = 0, i = index, ii = last; column < columns; column++, i += capacity, ii += capacity)
+			data.put(i, data.get(ii));
+	}
+
+	void clear () {
+		count = 0;
+	}
+
+	/** Removes expired particles, then integrates each column for all particles. */
+	void update (float delta) {
+		FloatBuffer data = this.data;
+		for (int i = count - 1; i >= 0; i--) {
+			float time = data.get(i) - delta;
+			if (time <= 0)
+				remove(i);
+			else
+				data.put(i, time);
+		}
+
+		int n = count, capacity = this.capacity;
+		int vx = Particles.vx * capacity, vy = Particles.vy * capacity, x = Particles.x * capacity, y = Particles.y * capacity;
+		int gravity = Particles.gravity * capacity, drag = Particles.drag * capacity;
+		int angle = Particles.angle * capacity, spin = Particles.spin * capacity;
+		int size = Particles.size * capacity, growth = Particles.growth * capacity;
+		for (int i = 0; i < n; i++)
+			data.put(vy + i, data.get(vy + i) - data.get(gravity + i) * delta);
+		for (int i = 0; i < n; i++) {
+			float damping = Math.max(0, 1 - data.get(drag + i) * delta);
+			data.put(vx + i, data.get(vx + i) * damping);
+			data.put(vy + i, data.get(vy + i) * damping);
+		}
+		for (int i = 0; i < n; i++)
+			data.put(x + i, data.get(x + i) + data.get(vx + i) * delta);
+		for (int i = 0; i < n; i++)
+			data.put(y + i, data.get(y + i) + data.get(vy + i) * delta);
+		for (int i = 0; i < n; i++)
+			data.put(angle + i, data.get(angle + i) + data.get(spin + i) * delta);
+		for (int i = 0; i < n; i++)
+			data.put(size + i, Math.max(0, data.get(size + i) + data.get(growth + i) * delta));
+	}
+
+	void build (TextureRegion region) {
+		build(region.getU(), region.getV(), region.getU2(), region.getV2());
+	}
+
+	/** Writes a quad for each particle, centered on its position and rotated by its angle. */
+	void build (float u, float v, float u2, float v2) {
+		FloatBuffer data = this.data;
+		float[] vertices = this.vertices;
+		int n = count, capacity = this.capacity;
+		vertexCount = n * quadSize;
+		for (int i = 0, ii = 0; i < n; i++, ii += quadSize) {
+			float cx = data.get(x * capacity + i), cy = data.get(y * capacity + i);
+			float angle = data.get(Particles.angle * capacity + i), half = data.get(size * capacity + i) / 2;
+			int alpha = (int)(255 * data.get(i) / data.get(life * capacity + i));
+			float color = NumberUtils.intToFloatColor(
+				alpha << 24 | NumberUtils.floatToIntColor(data.get(Particles.color * capacity + i)) & 0xffffff);
+			float acrossX = MathUtils.cosDeg(angle) * half, acrossY = MathUtils.sinDeg(angle) * half;
+			float upX = -acrossY, upY = acrossX;
+			vertices[ii] = cx - acrossX - upX;
+			vertices[ii + 1] = cy - acrossY - upY;
+			vertices[ii + 2] = color;
+			vertices[ii + 3] = u;
+			vertices[ii + 4] = v2;
+			vertices[ii + 5] = cx - acrossX + upX;
+			vertices[ii + 6] = cy - acrossY + upY;
+			vertices[ii + 7] = color;
+			vertices[ii + 8] = u;
+			vertices[ii + 9] = v;
+			vertices[ii + 10] = cx + acrossX + upX;
+			vertices[ii + 11] = cy + acrossY + upY;
+			vertices[ii + 12] = color;
+			vertices[ii + 13] = u2;
+			vertices[ii + 14] = v;
+			vertices[ii + 15] = cx + acrossX - upX;
+			vertices[ii + 16] = cy + acrossY - upY;
+			vertices[ii + 17] = color;
+			vertices[ii + 18] = u2;
+			vertices[ii + 19] = v2;
+		}
+	}
+
+	void draw (Batch batch, Texture texture) {
+		for (int i = 0; i < vertexCount; i += chunkSize)
+			batch.draw(texture, vertices, i, Math.min(chunkSize, vertexCount - i));
+	}
+
+	/** Adds a burst of particles. Each value is chosen randomly between its min and max. */
+	static class Emitter {
+		int minCount = 1, maxCount = 1;
+		float minLife, maxLife;
+		float spread; // Degrees around the emit angle that particles move toward.
+		float minSpeed, maxSpeed;
+		float gravity, drag;
+		float minSize, maxSize, growth;
+		float minSpin, maxSpin;
+		boolean alignAngle = true; // Particles are rotated toward the direction they move, else randomly.
+		float color = Color.WHITE_FLOAT_BITS;
+
+		void emit (Particles particles, float x, float y, float angle) {
+			for (int i = 0, n = MathUtils.random(minCount, maxCount); i < n; i++) {
+				float direction = angle + MathUtils.random(-spread, spread) / 2, speed = MathUtils.random(minSpeed, maxSpeed);
+				float particleAngle = alignAngle ? direction : MathUtils.random(360f);
+				if (particles.add(MathUtils.random(minLife, maxLife), x, y, MathUtils.cosDeg(direction) * speed,
+					MathUtils.sinDeg(direction) * speed, gravity, drag, particleAngle, MathUtils.random(minSpin, maxSpin),
+					MathUtils.random(minSize, maxSize), growth, color) == -1) return;
+			}
+		}
+	}
+}
@@ -29,6 +29,13 @@ package com.esotericsoftware.spine.superspineboy;
 
 import static com.esotericsoftware.spine.superspineboy.Model.*;
 
+import com.esotericsoftware.spine.superspineboy.Model.State;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+
+import java.nio.ByteBuffer;
+
 /** The model class for the player. */
 class Player extends Character {
 	static float heightSource = 625, width = 67 * scale, height = 285 * scale;
@@ -41,6 +48,9 @@ class Player extends Character {
 	static float shootDelay = 0.1f, shootOffsetX = 160, shootOffsetY = 11;
 	static float bulletSpeed = 34, bulletInheritVelocity = 0.4f, burstDuration = 0.18f;
 	static float kickbackShots = 33, kickbackAngle = 30, kickbackVarianceShots = 11, kickbackVariance = 6, kickback = 1.6f;
+	// Spread fire shoots a fan of bullets more often, with the same kickback per second as a single bullet.
+	static int spreadShots = 48;
+	static float spreadAngle = 60, spreadDelay = 0.02f;
 
 	static float knockbackX = 14, knockbackY = 5, collisionDelay = 2.5f, flashTime = 0.07f;
 	static float headBounceX = 12, headBounceY = 20;
@@ -48,6 +58,7 @@ class Player extends Character {
 	float shootTimer;
 	float collisionTimer;
 	float hpTimer;
+	Vector2 temp = new Vector2();
 
 	// This is here for convenience, the model should never touch the view.
 	PlayerView view;
@@ -78,4 +89,60 @@ class Player extends Character {
 		maxVelocityX = isGrounded() ? maxVelocityGroundX : maxVelocityAirX;
 		super.update(delta);
 	}
+
+	void write (ByteBuffer buffer) {
+		super.write(buffer);
+		buffer.putFloat(shootTimer);
+		buffer.putFloat(collisionTimer);
+		buffer.putFloat(hpTimer);
+	}
+
+	void read (ByteBuffer buffer) {
+		super.read(buffer);
+		shootTimer = buffer.getFloat();
+		collisionTimer = buffer.getFloat();
+		hpTimer = buffer.getFloat();
+	}
+
+	/** Applies the input for a step, before the rest of the model is updated. */
+	void applyInput (PlayerInput input, float delta) {
+		if (input.dir != 0) dir = input.dir;
+
+		if (input.left)
+			moveLeft(delta);
+		else if (input.right)
+			moveRight(delta);
+		else if (state == State.run) //
+			setState(State.idle);
+
+		if (input.jump && isGrounded()) {
+			jump();
+			input.jump = false;
+		}
+		// Releasing jump on the way up reduces jump height.
+		if (input.jumpRelease && velocity.y > 0) velocity.y *= jumpDamping;
+
+		if (input.shoot && shootTimer < 0)
+			shoot(input.shootX, input.shootY, input.shootVelocityX, input.shootVelocityY, input.spread);
+
+		input.dir = 0;
+		input.jumpRelease = false;
+		input.shoot = false;
+	}
+
+	void shoot (float x, float y, float vx, float vy, boolean spread) {
+		float angle = temp.set(vx, vy).angle();
+		if (spread) {
+			shootTimer = spreadDelay;
+			float speed = temp.len(), step = spreadAngle / (spreadShots - 1);
+			angle -= spreadAngle / 2;
+			for (int i = 0; i < spreadShots; i++, angle += step)
+				model.addBullet(x, y, MathUtils.cosDeg(angle) * speed, MathUtils.sinDeg(angle) * speed, angle);
+			velocity.x -= kickback * dir * spreadDelay / shootDelay;
+		} else {
+			shootTimer = shootDelay;
+			model.addBullet(x, y, vx, vy, angle);
+			velocity.x -= kickback * dir;
+		}
+	}
 }
@@ -0,0 +1,77 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+/** The player input for one simulation step. The view sets the input from the keyboard and mouse and the model applies it, so a
+ * game can be reproduced by recording the input and playing it back. */
+class PlayerInput {
+	boolean left, right;
+	/** Jump as soon as the player is grounded. Cleared by the model when the jump happens. */
+	boolean jump;
+	/** Jump was released, reducing the jump height if still moving up. */
+	boolean jumpRelease;
+	/** The direction the player faces because of aiming, or 0. */
+	float dir;
+	/** Shoot a bullet with the specified position and velocity, if the player can shoot. */
+	boolean shoot;
+	float shootX, shootY, shootVelocityX, shootVelocityY;
+	/** Shoot a fan of bullets around the velocity instead of a single bullet. */
+	boolean spread;
+
+	void set (PlayerInput input) {
+		left = input.left;
+		right = input.right;
+		jump = input.jump;
+		jumpRelease = input.jumpRelease;
+		dir = input.dir;
+		shoot = input.shoot;
+		shootX = input.shootX;
+		shootY = input.shootY;
+		shootVelocityX = input.shootVelocityX;
+		shootVelocityY = input.shootVelocityY;
+		spread = input.spread;
+	}
+
+	/** Returns true if the input has the same effect as the specified input. */
+	boolean matches (PlayerInput input) {
+		if (left != input.left || right != input.right || jump != input.jump || jumpRelease != input.jumpRelease
+			|| dir != input.dir || shoot != input.shoot) return false;
+		return !shoot || (shootX == input.shootX && shootY == input.shootY && shootVelocityX == input.shootVelocityX
+			&& shootVelocityY == input.shootVelocityY && spread == input.spread);
+	}
+
+	void clear () {
+		left = false;
+		right = false;
+		jump = false;
+		jumpRelease = false;
+		dir = 0;
+		shoot = false;
+	}
+}
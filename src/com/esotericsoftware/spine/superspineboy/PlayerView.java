@@ -79,38 +79,36 @@ class PlayerView extends CharacterView {
 			public void event (int trackIndex, Event event) {
 				if (event.getData() == footstepEvent) {
 					if (event.getInt() == 1)
-						SoundEffect.footstep1.play();
+						view.sounds.play(SoundEffect.footstep1);
 					else
-						SoundEffect.footstep2.play();
+						view.sounds.play(SoundEffect.footstep2);
 				}
 			}
 		});
 	}
 
 	void update (float delta) {
+		float dir = player.dir;
+
 		// When not shooting, reset the number of burst shots.
 		if (!view.touched && burstTimer > 0) {
 			burstTimer -= delta;
 			if (burstTimer < 0) burstShots = 0;
 		}
 
-		// If jump was pressed in the air, jump as soon as grounded.
-		if (view.jumpPressed && player.isGrounded()) jump();
-
-		skeleton.setX(player.position.x + width / 2);
-		skeleton.setY(player.position.y);
+		skeleton.setX(player.getX(view.alpha) + width / 2);
+		skeleton.setY(player.getY(view.alpha));
 
 		if (!setAnimation(view.assets.playerStates.get(player.state), player.stateChanged)) animationState.update(delta);
 		animationState.apply(skeleton);
 
-		Vector2 mouse = temp1.set(Gdx.input.getX(), Gdx.input.getY());
-		view.viewport.unproject(mouse);
+		Vector2 mouse = view.mouse;
 
 		// Determine if the player can shoot at the mouse position.
 		canShoot = false;
 		if (rearUpperArmBone == null || rearBracerBone == null || gunBone == null)
 			canShoot = true;
-		else if (player.hp > 0 && !view.ui.hasSplash
+		else if (player.hp > 0 && !view.hasSplash()
 			&& (Math.abs(skeleton.getY() - mouse.y) > 2.7f || Math.abs(skeleton.getX() - mouse.x) > 0.75f)) {
 			// Store bone rotations from the animation that was applied.
 			float rearUpperArmRotation = rearUpperArmBone.getRotation();
@@ -132,10 +130,13 @@ class PlayerView extends CharacterView {
 			float angle = bonePosition.sub(mouse).angle();
 			float behind = (angle < 90 || angle > 270) ? -1 : 1;
 			if (behind == -1) angle = -angle;
-			if (player.state == State.idle || (view.touched && (player.state == State.jump || player.state == State.fall)))
-				player.dir = behind;
-			if (behind != player.dir) angle = -angle;
-			if (player.state != State.idle && behind != player.dir) {
+			if (player.state == State.idle || (view.touched && (player.state == State.jump || player.state == State.fall))) {
+				// The model applies the new direction on the next step.
+				dir = behind;
+				model.input.dir = behind;
+			}
+			if (behind != dir) angle = -angle;
+			if (player.state != State.idle && behind != dir) {
 				// Don't allow the player to shoot behind themselves unless idle. Use the rotations stored earlier from the animation.
 				rearBracerBone.setRotation(rearBracerRotation);
 				rearUpperArmBone.setRotation(rearUpperArmRotation);
@@ -147,7 +148,7 @@ class PlayerView extends CharacterView {
 				float gunArmAngle = angle - shootRotation;
 				// Compute the head, torso and front arm angles so the player looks up or down.
 				float headAngle;
-				if (player.dir == -1) {
+				if (dir == -1) {
 					angle += 360;
 					if (angle < 180)
 						headAngle = 25 * Interpolation.pow2In.apply(Math.min(1, angle / 50f));
@@ -168,19 +169,14 @@ class PlayerView extends CharacterView {
 			}
 		}
 
-		skeleton.setScaleX(player.dir);
+		skeleton.setScaleX(dir);
 		skeleton.updateWorldTransform(null);
 	}
 
-	void jump () {
-		view.jumpPressed = false;
-		player.jump();
-		setAnimation(view.assets.playerStates.get(State.jump), true);
-	}
-
+	/** Sets the input to shoot a bullet toward the mouse on the next step. */
 	void shoot () {
-		if (!canShoot || player.shootTimer >= 0) return;
-		player.shootTimer = shootDelay;
+		PlayerInput input = model.input;
+		if (!canShoot || player.shootTimer >= 0 || input.shoot) return;
 		burstTimer = burstDuration;
 
 		// Compute the position and velocity to spawn a new bullet.
@@ -208,7 +204,13 @@ class PlayerView extends CharacterView {
 			x += cos * shootOffsetX * scale;
 			y += sin * shootOffsetX * scale;
 		}
-		model.addBullet(x, y, vx, vy, temp1.set(vx, vy).angle());
+		input.shoot = true;
+		input.shootX = x;
+		input.shootY = y;
+		input.shootVelocityX = vx;
+		input.shootVelocityY = vy;
+		input.spread = view.ui.spreadButton.isChecked();
+		view.flashEmitter.emit(view.particles, x, y, angle);
 		if (shootAnimation != null) animationState.setAnimation(1, shootAnimation, false);
 
 		view.camera.position.sub(view.shakeX, view.shakeY, 0);
@@ -216,8 +218,7 @@ class PlayerView extends CharacterView {
 		view.shakeY += View.cameraShake * (MathUtils.randomBoolean() ? 1 : -1);
 		view.camera.position.add(view.shakeX, view.shakeY, 0);
 
-		player.velocity.x -= kickback * player.dir;
-		SoundEffect.shoot.play();
+		view.sounds.play(SoundEffect.shoot);
 
 		burstShots = Math.min(kickbackShots, burstShots + 1);
 	}
@@ -0,0 +1,137 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import java.util.Arrays;
+
+/** Times the phases of each frame with {@link System#nanoTime()} and keeps the last {@link #history} frames, for the overlay
+ * drawn by the UI and for saving as CSV. Recording doesn't allocate. */
+class Profiler implements Probe {
+	static int history = 600;
+	static final Phase[] phases = Phase.values();
+	// Besides a column for each phase, each frame has the sum of the phases and the time since the previous frame began, which
+	// includes time outside the game's code, eg waiting for vsync.
+	static final int cpuColumn = phases.length, intervalColumn = phases.length + 1, columns = phases.length + 2;
+
+	final long[] times = new long[history * columns]; // Nanoseconds, oldest frame first once frames > history.
+	final long[] current = new long[phases.length];
+	final long[] sorted = new long[history];
+	int frames; // Total frames recorded.
+	Phase phase;
+	long phaseStart, frameStart, interval;
+
+	void beginFrame () {
+		long now = System.nanoTime();
+		interval = frameStart == 0 ? 0 : now - frameStart;
+		frameStart = now;
+		phase = null;
+		Arrays.fill(current, 0);
+	}
+
+	public void begin (Phase phase) {
+		long now = System.nanoTime();
+		if (this.phase != null) current[this.phase.ordinal()] += now - phaseStart;
+		this.phase = phase;
+		phaseStart = now;
+	}
+
+	public void end () {
+		if (phase != null) current[phase.ordinal()] += System.nanoTime() - phaseStart;
+		phase = null;
+	}
+
+	void endFrame () {
+		end();
+		int row = (frames % history) * columns;
+		long cpu = 0;
+		for (int i = 0, n = phases.length; i < n; i++) {
+			times[row + i] = current[i];
+			cpu += current[i];
+		}
+		times[row + cpuColumn] = cpu;
+		times[row + intervalColumn] = interval;
+		frames++;
+	}
+
+	/** Returns the number of frames kept. */
+	int size () {
+		return Math.min(frames, history);
+	}
+
+	/** @param frame 0 for the oldest frame kept, up to {@link #size()} - 1 for the newest.
+	 * @return Nanoseconds. */
+	long get (int frame, int column) {
+		if (frames > history) frame = (frames + frame) % history;
+		return times[frame * columns + column];
+	}
+
+	/** Stores the minimum, average and 99th percentile in nanoseconds for the frames kept. */
+	void stats (int column, long[] result) {
+		int size = size();
+		if (size == 0) {
+			Arrays.fill(result, 0, 3, 0);
+			return;
+		}
+		long total = 0;
+		for (int i = 0; i < size; i++) {
+			long time = times[i * columns + column];
+			sorted[i] = time;
+			total += time;
+		}
+		Arrays.sort(sorted, 0, size);
+		result[0] = sorted[0];
+		result[1] = total / size;
+		result[2] = sorted[Math.min(size - 1, (int)(size * 0.99f))];
+	}
+
+	static String getName (int column) {
+		if (column == cpuColumn) return "cpu";
+		if (column == intervalColumn) return "interval";
+		return phases[column].name();
+	}
+
+	/** Writes the frames kept, oldest first, with a column for each phase in nanoseconds. */
+	void save (FileHandle file) {
+		int size = size();
+		StringBuilder buffer = new StringBuilder((size + 1) * columns * 8);
+		buffer.append("frame");
+		for (int i = 0; i < columns; i++)
+			buffer.append(',').append(getName(i));
+		buffer.append('\n');
+		for (int frame = 0; frame < size; frame++) {
+			buffer.append(frames - size + frame);
+			for (int i = 0; i < columns; i++)
+				buffer.append(',').append(get(frame, i));
+			buffer.append('\n');
+		}
+		file.writeString(buffer.toString(), false);
+	}
+}
@@ -0,0 +1,174 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ByteArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/** Records the random seed and the player input for every step of a game. Playing a replay back reproduces the game exactly, so a
+ * problem seen in a game can be reproduced from its replay. Playback doesn't need the view, so a replay can run headless as fast
+ * as possible and check that the final state matches the state when it was recorded. */
+class Replay {
+	static final int version = 2;
+	// Each step is stored as a byte of flags, followed by the delta if it changed and, if a bullet was shot, a byte that is 1 for
+	// spread fire and the bullet.
+	static final int left = 1, right = 2, jump = 4, jumpRelease = 8, dirLeft = 16, dirRight = 32, shoot = 64, newDelta = 128;
+
+	long seed;
+	int ticks;
+	long hash; // State hash after the last step.
+	ByteArray data = new ByteArray(16 * 1024);
+	float delta;
+	int position;
+
+	void start (long seed) {
+		this.seed = seed;
+		ticks = 0;
+		hash = 0;
+		data.clear();
+		delta = 0;
+	}
+
+	void record (PlayerInput input, float delta) {
+		int flags = 0;
+		if (input.left) flags |= left;
+		if (input.right) flags |= right;
+		if (input.jump) flags |= jump;
+		if (input.jumpRelease) flags |= jumpRelease;
+		if (input.dir < 0) flags |= dirLeft;
+		if (input.dir > 0) flags |= dirRight;
+		if (input.shoot) flags |= shoot;
+		if (delta != this.delta) flags |= newDelta;
+		data.add((byte)flags);
+		if (delta != this.delta) {
+			this.delta = delta;
+			writeFloat(delta);
+		}
+		if (input.shoot) {
+			data.add((byte)(input.spread ? 1 : 0));
+			writeFloat(input.shootX);
+			writeFloat(input.shootY);
+			writeFloat(input.shootVelocityX);
+			writeFloat(input.shootVelocityY);
+		}
+		ticks++;
+	}
+
+	/** Prepares to read the steps from the start. */
+	void rewind () {
+		position = 0;
+		delta = 0;
+	}
+
+	/** Sets the input for the next step.
+	 * @return The delta for the step. */
+	float read (PlayerInput input) {
+		int flags = data.items[position++];
+		input.left = (flags & left) != 0;
+		input.right = (flags & right) != 0;
+		input.jump = (flags & jump) != 0;
+		input.jumpRelease = (flags & jumpRelease) != 0;
+		input.dir = (flags & dirLeft) != 0 ? -1 : ((flags & dirRight) != 0 ? 1 : 0);
+		input.shoot = (flags & shoot) != 0;
+		if ((flags & newDelta) != 0) delta = readFloat();
+		if (input.shoot) {
+			input.spread = data.items[position++] != 0;
+			input.shootX = readFloat();
+			input.shootY = readFloat();
+			input.shootVelocityX = readFloat();
+			input.shootVelocityY = readFloat();
+		}
+		return delta;
+	}
+
+	private void writeFloat (float value) {
+		int bits = Float.floatToIntBits(value);
+		data.add((byte)(bits >> 24), (byte)(bits >> 16), (byte)(bits >> 8), (byte)bits);
+	}
+
+	private float readFloat () {
+		byte[] items = data.items;
+		int bits = (items[position] & 0xff) << 24 | (items[position + 1] & 0xff) << 16 | (items[position + 2] & 0xff) << 8
+			| (items[position + 3] & 0xff);
+		position += 4;
+		return Float.intBitsToFloat(bits);
+	}
+
+	void save (FileHandle file) {
+		DataOutputStream output = new DataOutputStream(file.write(false, 8192));
+		try {
+			output.writeInt(version);
+			output.writeLong(seed);
+			output.writeInt(ticks);
+			output.writeLong(hash);
+			output.writeInt(data.size);
+			output.write(data.items, 0, data.size);
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error writing replay: " + file, ex);
+		} finally {
+			StreamUtils.closeQuietly(output);
+		}
+	}
+
+	void load (FileHandle file) {
+		DataInputStream input = new DataInputStream(file.read(8192));
+		try {
+			int fileVersion = input.readInt();
+			if (fileVersion != version) throw new GdxRuntimeException("Unsupported replay version " + fileVersion + ": " + file);
+			seed = input.readLong();
+			ticks = input.readInt();
+			hash = input.readLong();
+			int size = input.readInt();
+			input.readFully(data.setSize(size), 0, size);
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error reading replay: " + file, ex);
+		} finally {
+			StreamUtils.closeQuietly(input);
+		}
+		rewind();
+	}
+
+	/** Plays back a replay on the model and returns true if the final state matches the state when the replay was recorded. */
+	boolean play (Model model) {
+		rewind();
+		model.restart(seed);
+		boolean events = model.events.enabled;
+		model.events.enabled = false;
+		for (int i = 0; i < ticks; i++)
+			model.update(read(model.input));
+		model.events.enabled = events;
+		return model.getStateHash() == hash;
+	}
+}
@@ -0,0 +1,198 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import java.util.Arrays;
+
+/** Runs the model ahead of the input from remote peers. Each peer adds the input of its own player as soon as it is known and the
+ * input of the other players when it arrives. When the input of a player for a tick hasn't arrived, it is predicted by repeating
+ * that player's last input. When input arrives that differs from the prediction, the model is restored from the snapshot taken
+ * before that tick and the ticks since are simulated again. Simulating again is split across frames, so each call to
+ * {@link #advance()} spends at most {@link #budget} nanoseconds on it, and no new tick is simulated until it has caught up. */
+class Rollback {
+	final Model model;
+	final int window; // Maximum number of ticks that can be simulated again.
+	final int playerCount;
+	float delta = 1 / 60f;
+	long budget = 4000000; // Nanoseconds per frame for simulating ticks again. At least one tick is simulated per frame.
+
+	int tick; // The next tick to simulate.
+	int simulatedTick; // The tick the model is at, less than tick while ticks are being simulated again.
+	int confirmedTick = -1; // The input for this tick and all ticks before it has been received for every player.
+	int rollbackTick = Integer.MAX_VALUE; // The earliest tick that needs to be simulated again.
+
+	private final Snapshot[] snapshots;
+	private final PlayerInput[][] inputs; // Indexed by player, then by tick.
+	private final int[][] inputTicks;
+	private final boolean[][] confirmed;
+	private final int[] confirmedTicks; // Indexed by player.
+
+	int rollbacks, resimulatedTicks, budgetStalls;
+	long resimulateTime, maxResimulateTime; // Nanoseconds.
+
+	/** @param model Its players must already be created, see {@link Model#playerCount}. */
+	Rollback (Model model, int window) {
+		this.model = model;
+		this.window = window;
+		playerCount = model.players.size;
+		snapshots = new Snapshot[window];
+		for (int i = 0; i < window; i++)
+			snapshots[i] = new Snapshot();
+		// Inputs are kept for twice the window so input can arrive ahead of the simulation.
+		inputs = new PlayerInput[playerCount][window * 2];
+		inputTicks = new int[playerCount][window * 2];
+		confirmed = new boolean[playerCount][window * 2];
+		for (int player = 0; player < playerCount; player++) {
+			for (int i = 0; i < window * 2; i++)
+				inputs[player][i] = new PlayerInput();
+			Arrays.fill(inputTicks[player], -1);
+		}
+		confirmedTicks = new int[playerCount];
+		Arrays.fill(confirmedTicks, -1);
+	}
+
+	/** Sets the input of a player for a tick. Input for a tick that was already confirmed is ignored. */
+	void addInput (int player, int inputTick, PlayerInput input) {
+		int confirmedTick = confirmedTicks[player];
+		PlayerInput[] inputs = this.inputs[player];
+		int[] inputTicks = this.inputTicks[player];
+		boolean[] confirmed = this.confirmed[player];
+		// The slot of the last confirmed tick is kept, since predictions repeat that input.
+		if (inputTick <= confirmedTick || inputTick >= confirmedTick + inputs.length) return;
+		int index = inputTick % inputs.length;
+		if (inputTicks[index] == inputTick) {
+			if (confirmed[index]) return;
+			// The tick was simulated with a predicted input. Ticks not yet simulated again will use the new input anyway.
+			if (inputTick < simulatedTick && !inputs[index].matches(input)) rollbackTick = Math.min(rollbackTick, inputTick);
+		}
+		inputs[index].set(input);
+		inputTicks[index] = inputTick;
+		confirmed[index] = true;
+		while (true) {
+			index = (confirmedTick + 1) % inputs.length;
+			if (inputTicks[index] != confirmedTick + 1 || !confirmed[index]) break;
+			confirmedTick++;
+		}
+		confirmedTicks[player] = confirmedTick;
+
+		int min = confirmedTick;
+		for (int i = 0; i < playerCount; i++)
+			min = Math.min(min, confirmedTicks[i]);
+		this.confirmedTick = min;
+	}
+
+	/** Returns false if the simulation is so far ahead of the remote input that the oldest unconfirmed tick could no longer be
+	 * simulated again. The caller should wait for input before advancing. */
+	boolean canAdvance () {
+		return tick - confirmedTick <= window;
+	}
+
+	/** Returns true if no ticks are waiting to be simulated again. */
+	boolean isCaughtUp () {
+		return simulatedTick == tick && rollbackTick == Integer.MAX_VALUE;
+	}
+
+	/** Simulates the ticks that had mispredicted input again, then simulates the next tick if that caught up within the budget
+	 * and {@link #canAdvance()} is true.
+	 * @return False if no new tick was simulated, because the budget ran out or the caller must wait for input. */
+	boolean advance () {
+		if (!isCaughtUp()) {
+			resimulate();
+			if (simulatedTick < tick) {
+				budgetStalls++;
+				return false;
+			}
+		}
+		// Advancing would overwrite the snapshot needed to simulate the oldest unconfirmed tick again.
+		if (!canAdvance()) return false;
+		snapshots[tick % window].save(model);
+		simulate(tick);
+		tick++;
+		simulatedTick = tick;
+		return true;
+	}
+
+	/** Restores the model to the earliest mispredicted tick, if any, then simulates ticks again until caught up or the budget is
+	 * used. Events are not queued for ticks that are simulated again, since they were queued the first time. */
+	void resimulate () {
+		long start = System.nanoTime();
+		boolean events = model.events.enabled;
+		model.events.enabled = false;
+		if (rollbackTick != Integer.MAX_VALUE) {
+			rollbacks++;
+			snapshots[rollbackTick % window].restore(model);
+			simulatedTick = rollbackTick;
+			rollbackTick = Integer.MAX_VALUE;
+			// The snapshot for this tick was just restored, so it isn't saved again.
+			simulate(simulatedTick++);
+			resimulatedTicks++;
+		}
+		while (simulatedTick < tick && System.nanoTime() - start < budget) {
+			snapshots[simulatedTick % window].save(model);
+			simulate(simulatedTick++);
+			resimulatedTicks++;
+		}
+		model.events.enabled = events;
+		long time = System.nanoTime() - start;
+		resimulateTime += time;
+		maxResimulateTime = Math.max(maxResimulateTime, time);
+	}
+
+	private void simulate (int t) {
+		for (int player = 0; player < playerCount; player++) {
+			int index = t % inputs[player].length;
+			PlayerInput input = inputs[player][index];
+			if (inputTicks[player][index] != t || !confirmed[player][index]) {
+				predict(player, input);
+				inputTicks[player][index] = t;
+				confirmed[player][index] = false;
+			}
+			model.inputs.get(player).set(input);
+		}
+		model.update(delta);
+	}
+
+	/** Predicts the input of a player for a tick by repeating the held buttons of the player's last confirmed input. */
+	private void predict (int player, PlayerInput input) {
+		int confirmedTick = confirmedTicks[player];
+		if (confirmedTick >= 0) {
+			PlayerInput last = inputs[player][confirmedTick % inputs[player].length];
+			input.left = last.left;
+			input.right = last.right;
+			input.jump = last.jump;
+		} else {
+			input.left = false;
+			input.right = false;
+			input.jump = false;
+		}
+		input.jumpRelease = false;
+		input.dir = 0;
+		input.shoot = false;
+	}
+}
@@ -0,0 +1,190 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Enemy.Type;
+import com.esotericsoftware.spine.superspineboy.Model.State;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/** A binary snapshot of the full model state, so the state can be captured and restored without restarting. The snapshot is
+ * written to a direct buffer that is reused, so taking a snapshot doesn't allocate unless the buffer needs to grow. The map and
+ * triggers are not stored, only the index of the next trigger. */
+class Snapshot {
+	static final int version = 6;
+	static final State[] states = State.values();
+	static final Type[] types = Type.values();
+
+	ByteBuffer buffer;
+	private final ObjectIntMap<Enemy> enemyIndices = new ObjectIntMap();
+
+	Snapshot () {
+		this(16 * 1024);
+	}
+
+	Snapshot (int capacity) {
+		buffer = ByteBuffer.allocateDirect(capacity);
+	}
+
+	void save (Model model) {
+		while (true) {
+			buffer.clear();
+			try {
+				write(model);
+				break;
+			} catch (BufferOverflowException ex) {
+				buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+			}
+		}
+		buffer.flip();
+	}
+
+	private void write (Model model) {
+		ByteBuffer buffer = this.buffer;
+		buffer.putInt(version);
+		buffer.putLong(model.seed);
+		buffer.putLong(model.random.getState(0)).putLong(model.random.getState(1));
+		buffer.putInt(model.triggerIndex);
+		buffer.putFloat(model.gameOverTimer);
+
+		Array<Player> players = model.players;
+		buffer.putInt(players.size);
+		for (int i = 0, n = players.size; i < n; i++) {
+			PlayerInput input = model.inputs.get(i);
+			buffer.put((byte)((input.left ? 1 : 0) | (input.right ? 2 : 0) | (input.jump ? 4 : 0) | (input.jumpRelease ? 8 : 0)
+				| (input.shoot ? 16 : 0) | (input.spread ? 32 : 0)));
+			buffer.putFloat(input.dir);
+			buffer.putFloat(input.shootX).putFloat(input.shootY).putFloat(input.shootVelocityX).putFloat(input.shootVelocityY);
+
+			players.get(i).write(buffer);
+		}
+
+		model.enemyPool.write(buffer);
+		Array<Enemy> enemies = model.enemies;
+		buffer.putInt(enemies.size);
+		enemyIndices.clear();
+		for (int i = 0, n = enemies.size; i < n; i++) {
+			Enemy enemy = enemies.get(i);
+			writeEnemy(enemy);
+			enemyIndices.put(enemy, i);
+		}
+
+		Array<Enemy> corpses = model.corpses;
+		buffer.putInt(corpses.size);
+		for (int i = 0, n = corpses.size; i < n; i++)
+			writeEnemy(corpses.get(i));
+
+		// The order of the enemy index still decides which enemy is hit when a bullet hits two at the same time and depth.
+		Array<Enemy> indexed = model.enemyIndex.enemies;
+		buffer.putInt(indexed.size);
+		for (int i = 0, n = indexed.size; i < n; i++)
+			buffer.putInt(enemyIndices.get(indexed.get(i), -1));
+		enemyIndices.clear();
+
+		model.bullets.write(buffer);
+	}
+
+	/** Restores the model to the state when the snapshot was saved. */
+	void restore (Model model) {
+		ByteBuffer buffer = this.buffer;
+		buffer.rewind();
+		int snapshotVersion = buffer.getInt();
+		if (snapshotVersion != version) throw new GdxRuntimeException("Unsupported snapshot version: " + snapshotVersion);
+		model.seed = buffer.getLong();
+		long random0 = buffer.getLong(), random1 = buffer.getLong();
+		model.triggerIndex = buffer.getInt();
+		model.gameOverTimer = buffer.getFloat();
+
+		int playerCount = buffer.getInt();
+		model.playerCount = playerCount;
+		model.setPlayers(playerCount);
+		for (int i = 0; i < playerCount; i++) {
+			PlayerInput input = model.inputs.get(i);
+			int flags = buffer.get();
+			input.left = (flags & 1) != 0;
+			input.right = (flags & 2) != 0;
+			input.jump = (flags & 4) != 0;
+			input.jumpRelease = (flags & 8) != 0;
+			input.shoot = (flags & 16) != 0;
+			input.spread = (flags & 32) != 0;
+			input.dir = buffer.getFloat();
+			input.shootX = buffer.getFloat();
+			input.shootY = buffer.getFloat();
+			input.shootVelocityX = buffer.getFloat();
+			input.shootVelocityY = buffer.getFloat();
+
+			model.players.get(i).read(buffer);
+		}
+
+		Array<Enemy> enemies = model.enemies, corpses = model.corpses;
+		// Each enemy is restored into the instance with its id and keeps its generation, so views and queued events for enemies
+		// that existed when the snapshot was saved stay valid. Resetting an enemy uses the model's random numbers, so the model's
+		// generator is restored afterward.
+		model.enemyIndex.clear();
+		enemies.clear();
+		corpses.clear();
+		model.enemyPool.read(buffer);
+		readEnemies(model, enemies);
+		readEnemies(model, corpses);
+
+		Array<Enemy> indexed = model.enemyIndex.enemies;
+		for (int i = 0, n = buffer.getInt(); i < n; i++) {
+			Enemy enemy = enemies.get(buffer.getInt());
+			enemy.indexed = true;
+			indexed.add(enemy);
+		}
+
+		model.bullets.read(buffer);
+
+		model.random.setState(random0, random1);
+	}
+
+	private void writeEnemy (Enemy enemy) {
+		buffer.putInt(enemy.id).putInt(enemy.generation);
+		enemy.write(buffer);
+	}
+
+	private void readEnemies (Model model, Array<Enemy> enemies) {
+		ByteBuffer buffer = this.buffer;
+		for (int i = 0, n = buffer.getInt(); i < n; i++) {
+			int id = buffer.getInt(), generation = buffer.getInt();
+			Type type = types[buffer.get(buffer.position())];
+			Enemy enemy = model.enemyPool.get(id, type);
+			enemy.reset(type);
+			enemy.generation = generation;
+			enemy.read(buffer);
+			enemies.add(enemy);
+		}
+	}
+}
@@ -0,0 +1,210 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Assets.SoundEffect;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/** Decides which sounds are actually played. Requests for the same effect in a frame are combined into one voice with the volumes
+ * summed. Sounds far outside the camera are quieter or not played at all. Each effect has a maximum number of voices and there is
+ * a maximum for all effects; when a limit is reached the oldest voice of the effect, or the oldest voice with the lowest
+ * priority, is stopped. */
+class SoundScheduler {
+	static final SoundEffect[] effects = SoundEffect.values();
+	static final SoundEffect[] effectsByPriority = effects.clone();
+	static {
+		Arrays.sort(effectsByPriority, new Comparator<SoundEffect>() {
+			public int compare (SoundEffect a, SoundEffect b) {
+				return b.priority - a.priority;
+			}
+		});
+	}
+
+	static float cullDistance = 20; // Distance beyond the camera edge where sounds fade to silent.
+
+	final Backend backend;
+	final int maxVoices;
+	float time;
+	float listenerX, listenerY, halfWidth, halfHeight;
+
+	private final float[] requestVolumes = new float[effects.length];
+	private final int[] requestCounts = new int[effects.length];
+	private final SoundEffect[] voiceEffects;
+	private final long[] voiceIds;
+	private final float[] voiceTimes;
+	private final int[] effectVoices = new int[effects.length];
+	int voiceCount;
+
+	int requested, played, coalesced, culled, stolen, dropped;
+
+	SoundScheduler (Backend backend, int maxVoices) {
+		this.backend = backend;
+		this.maxVoices = maxVoices;
+		voiceEffects = new SoundEffect[maxVoices];
+		voiceIds = new long[maxVoices];
+		voiceTimes = new float[maxVoices];
+	}
+
+	/** Sets the area the player can see. Sounds are attenuated by their distance outside this area. */
+	void setListener (float x, float y, float halfWidth, float halfHeight) {
+		listenerX = x;
+		listenerY = y;
+		this.halfWidth = halfWidth;
+		this.halfHeight = halfHeight;
+	}
+
+	/** Requests a sound that isn't attenuated by distance. */
+	void play (SoundEffect effect) {
+		request(effect, 1);
+	}
+
+	/** Requests a sound at a position in world coordinates. */
+	void play (SoundEffect effect, float x, float y) {
+		float distance = Math.max(Math.abs(x - listenerX) - halfWidth, Math.abs(y - listenerY) - halfHeight);
+		if (distance >= cullDistance) {
+			requested++;
+			culled++;
+			return;
+		}
+		request(effect, distance <= 0 ? 1 : 1 - distance / cullDistance);
+	}
+
+	private void request (SoundEffect effect, float attenuation) {
+		requested++;
+		int index = effect.ordinal();
+		if (requestCounts[index]++ > 0) coalesced++;
+		requestVolumes[index] += effect.volume * attenuation;
+	}
+
+	/** Plays the sounds requested since the last update, highest priority first. Should be called once per frame. */
+	void update (float delta) {
+		time += delta;
+
+		// Forget voices that have finished.
+		for (int i = voiceCount - 1; i >= 0; i--)
+			if (time - voiceTimes[i] >= voiceEffects[i].duration) removeVoice(i);
+
+		for (SoundEffect effect : effectsByPriority) {
+			int index = effect.ordinal();
+			if (requestCounts[index] == 0) continue;
+			float volume = Math.min(1, requestVolumes[index]);
+			requestCounts[index] = 0;
+			requestVolumes[index] = 0;
+
+			if (effectVoices[index] >= effect.maxVoices)
+				stopVoice(oldestVoice(effect));
+			else if (voiceCount == maxVoices) {
+				int voice = lowestPriorityVoice();
+				if (voiceEffects[voice].priority > effect.priority) {
+					dropped++;
+					continue;
+				}
+				stopVoice(voice);
+			}
+			voiceEffects[voiceCount] = effect;
+			voiceIds[voiceCount] = backend.play(effect, volume);
+			voiceTimes[voiceCount] = time;
+			voiceCount++;
+			effectVoices[index]++;
+			played++;
+		}
+	}
+
+	private int oldestVoice (SoundEffect effect) {
+		// Voices are added in time order, so the first one found is the oldest.
+		for (int i = 0; i < voiceCount; i++)
+			if (voiceEffects[i] == effect) return i;
+		throw new IllegalStateException();
+	}
+
+	private int lowestPriorityVoice () {
+		int lowest = 0;
+		for (int i = 1; i < voiceCount; i++)
+			if (voiceEffects[i].priority < voiceEffects[lowest].priority) lowest = i;
+		return lowest;
+	}
+
+	private void stopVoice (int index) {
+		backend.stop(voiceEffects[index], voiceIds[index]);
+		removeVoice(index);
+		stolen++;
+	}
+
+	private void removeVoice (int index) {
+		effectVoices[voiceEffects[index].ordinal()]--;
+		int moved = voiceCount - index - 1;
+		System.arraycopy(voiceEffects, index + 1, voiceEffects, index, moved);
+		System.arraycopy(voiceIds, index + 1, voiceIds, index, moved);
+		System.arraycopy(voiceTimes, index + 1, voiceTimes, index, moved);
+		voiceCount--;
+		voiceEffects[voiceCount] = null;
+	}
+
+	/** Returns the number of voices of the effect that are playing. */
+	int getVoices (SoundEffect effect) {
+		return effectVoices[effect.ordinal()];
+	}
+
+	/** Plays voices on the audio device, or elsewhere for testing. */
+	interface Backend {
+		long play (SoundEffect effect, float volume);
+
+		void stop (SoundEffect effect, long id);
+	}
+
+	static class GdxBackend implements Backend {
+		public long play (SoundEffect effect, float volume) {
+			return effect.sound.play(volume);
+		}
+
+		public void stop (SoundEffect effect, long id) {
+			effect.sound.stop(id);
+		}
+	}
+
+	/** Counts the voices that would be played, so the scheduler can be checked without an audio device. */
+	static class MockBackend implements Backend {
+		final int[] plays = new int[effects.length];
+		final float[] volumes = new float[effects.length]; // Volume of the last voice played for each effect.
+		int stops;
+		long nextId;
+
+		public long play (SoundEffect effect, float volume) {
+			plays[effect.ordinal()]++;
+			volumes[effect.ordinal()] = volume;
+			return nextId++;
+		}
+
+		public void stop (SoundEffect effect, long id) {
+			stops++;
+		}
+	}
+}
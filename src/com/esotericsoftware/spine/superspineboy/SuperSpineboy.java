@@ -31,31 +31,63 @@ import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 
-import com.esotericsoftware.spine.AnimationState.TrackEntry;
-import com.esotericsoftware.spine.superspineboy.Assets.SoundEffect;
+import com.esotericsoftware.spine.superspineboy.Probe.Phase;
 
 /** The controller class for the game. It knows about both the model and view and provides a way for the view to know about events
  * that occur in the model. */
-class SuperSpineboy extends ApplicationAdapter {
-	static Vector2 temp = new Vector2();
+class SuperSpineboy extends ApplicationAdapter implements Model.Listener {
+	static int tickRate = 60; // Simulation steps per second, or 0 to step the simulation once per frame.
+	static int maxTicksPerFrame = 5;
+	// When set, input is recorded and the last game is saved to this file when the game restarts or exits.
+	// Set by "--replay <file>".
+	static String replayFile;
 
 	View view;
 	Model model;
+	float accumulator;
+	Replay replay = new Replay();
 
 	public void create () {
-		model = new Model(this);
-		view = new View(model);
+		model = new Model();
+		replay.start(model.seed);
+		view = new View(this);
 	}
 
 	public void render () {
+		Probe probe = model.probe;
+		if (probe != null) view.profiler.beginFrame();
+
 		float delta = Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f) * model.getTimeScale();
-		if (delta > 0) {
-			model.update(delta);
-			view.update(delta);
+		if (tickRate == 0) {
+			if (delta > 0) tick(delta);
+		} else {
+			// Step the simulation at a fixed rate. The view interpolates between the last two steps, so the simulation rate can
+			// be lower than the frame rate and frames that don't need a step don't update the model.
+			float step = 1f / tickRate;
+			accumulator += delta;
+			for (int i = 0; accumulator >= step && i < maxTicksPerFrame; i++) {
+				tick(step);
+				accumulator -= step;
+			}
+			accumulator = Math.min(accumulator, step);
+			view.alpha = accumulator / step;
 		}
+		// Events from all the steps this frame are handled at once.
+		if (model.probe != null) model.probe.begin(Phase.events);
+		model.events.drain(model.enemyPool, this);
+		if (delta > 0) view.update(delta);
 		view.render();
+
+		if (probe != null) view.profiler.endFrame();
+	}
+
+	void tick (float delta) {
+		if (model.probe != null) model.probe.begin(Phase.input);
+		view.updateInput();
+		if (replayFile != null) replay.record(model.input, delta);
+		model.update(delta);
 	}
 
 	public void resize (int width, int height) {
@@ -63,46 +95,60 @@ class SuperSpineboy extends ApplicationAdapter {
 	}
 
 	void restart () {
+		saveReplay();
+		accumulator = 0;
 		model.restart();
+		replay.start(model.seed);
 		view.restart();
 	}
 
-	void eventHitPlayer (Enemy enemy) {
-		SoundEffect.hurtPlayer.play();
-		if (view.player.hp > 0 && view.player.view.hitAnimation != null) {
-			TrackEntry entry = view.player.view.animationState.setAnimation(1, view.player.view.hitAnimation, false);
-			entry.setTrackEnd(view.player.view.hitAnimation.getDuration());
-		}
+	public void dispose () {
+		saveReplay();
+		model.dispose();
 	}
 
-	void eventHitEnemy (Enemy enemy) {
-		SoundEffect.hurtAlien.play();
-		if (enemy.view.hitAnimation != null) {
-			TrackEntry entry = enemy.view.animationState.setAnimation(1, enemy.view.hitAnimation, false);
-			entry.setTrackEnd(enemy.view.hitAnimation.getDuration());
+	void saveReplay () {
+		if (replayFile == null || replay.ticks == 0) return;
+		replay.hash = model.getStateHash();
+		try {
+			replay.save(Gdx.files.local(replayFile));
+		} catch (GdxRuntimeException ex) {
+			Gdx.app.error("SuperSpineboy", "Unable to save replay.", ex);
 		}
 	}
 
-	void eventHitBullet (float x, float y, float vx, float vy) {
-		Vector2 offset = temp.set(vx, vy).nor().scl(15 * Model.scale);
-		view.hits.add(View.bulletHitTime);
-		view.hits.add(x + offset.x);
-		view.hits.add(y + offset.y);
-		view.hits.add(temp.angle() + 90);
-		SoundEffect.hit.play();
+	public void eventHitPlayer (Enemy enemy) {
+		view.hitPlayer();
 	}
 
-	void eventGameOver (boolean win) {
+	public void eventHitEnemy (Enemy enemy, float x, float y) {
+		view.hitEnemy(enemy, x, y);
+	}
+
+	public void eventHitBullet (float x, float y, float vx, float vy) {
+		view.hitBullet(x, y, vx, vy);
+	}
+
+	public void eventGameOver (boolean win) {
 		if (!view.ui.splashTable.hasParent()) {
 			view.ui.showSplash(view.assets.gameOverRegion, win ? view.assets.youWinRegion : view.assets.youLoseRegion);
 			view.ui.inputTimer = win ? 5 : 1;
 		}
-		view.jumpPressed = false;
+		model.input.jump = false;
 		view.leftPressed = false;
 		view.rightPressed = false;
 	}
 
 	public static void main (String[] args) throws Exception {
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--replay") && i + 1 < args.length)
+				replayFile = args[++i];
+			else if (args[i].equals("--paged"))
+				Model.pagedMap = true;
+			else
+				throw new IllegalArgumentException("Usage: SuperSpineboy [--replay <file>] [--paged]");
+		}
+
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
 		config.title = "Super Spineboy";
 		config.width = 800;
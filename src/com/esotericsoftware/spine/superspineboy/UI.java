@@ -33,6 +33,7 @@ import static com.esotericsoftware.spine.superspineboy.Model.*;
 import static com.esotericsoftware.spine.superspineboy.View.*;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.Graphics.DisplayMode;
 import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.InputAdapter;
@@ -66,14 +67,18 @@ import com.badlogic.gdx.scenes.scene2d.ui.TextButton.TextButtonStyle;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.scenes.scene2d.utils.UIUtils;
-import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.Scaling;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.esotericsoftware.spine.SkeletonRendererDebug;
+import com.esotericsoftware.spine.superspineboy.Probe.Phase;
 
 /** The user interface displayed on top of the game (menu, health bar, splash screens). */
 class UI extends InputAdapter {
 	static final Color gray = new Color(0.15f, 0.15f, 0.15f, 1);
+	// The first phase of each group drawn by the profile graph.
+	static final int[] profileGroups = {Phase.input.ordinal(), Phase.events.ordinal(), Phase.drawMap.ordinal(),
+		Phase.ui.ordinal(), Profiler.cpuColumn};
+	static final Color[] profileColors = {Color.GREEN, Color.YELLOW, Color.CYAN, Color.MAGENTA};
 
 	View view;
 	Model model;
@@ -82,8 +87,8 @@ class UI extends InputAdapter {
 	SkeletonRendererDebug skeletonRendererDebug;
 	Stage stage;
 	Skin skin;
-	Label fpsLabel, bindsLabel;
-	TextButton debugButton, zoomButton, bgButton;
+	Label fpsLabel, bindsLabel, poolLabel, lodLabel, bulletLabel, particleLabel, eventLabel, soundLabel, profileLabel;
+	TextButton debugButton, zoomButton, bgButton, profileButton, spreadButton;
 	TextButton speed200Button, speed150Button, speed100Button, speed33Button, speed15Button, speed3Button, pauseButton;
 	Table splashTable;
 	Image splashImage, splashTextImage;
@@ -91,6 +96,9 @@ class UI extends InputAdapter {
 	TextButton fullscreenButton, restartButton, menuButton;
 	Table menu;
 	Vector2 temp = new Vector2();
+	StringBuilder profileText = new StringBuilder(), menuText = new StringBuilder();
+	long[] profileStats = new long[3];
+	int profileSaves;
 
 	int windowWidth, windowHeight;
 	float inputTimer;
@@ -133,10 +141,20 @@ class UI extends InputAdapter {
 		healthBar.setAnimateInterpolation(fade);
 		fpsLabel = new Label("", skin);
 		bindsLabel = new Label("", skin);
+		poolLabel = new Label("", skin);
+		lodLabel = new Label("", skin);
+		bulletLabel = new Label("", skin);
+		particleLabel = new Label("", skin);
+		eventLabel = new Label("", skin);
+		soundLabel = new Label("", skin);
 		debugButton = button("Debug", true);
 		zoomButton = button("Zoom", true);
 		bgButton = button("Background", true);
 		bgButton.setChecked(true);
+		profileButton = button("Profile", true);
+		spreadButton = button("Spread fire", true);
+		profileLabel = new Label("", skin);
+		profileLabel.setVisible(false);
 
 		fullscreenButton = button("Fullscreen", true);
 
@@ -164,6 +182,8 @@ class UI extends InputAdapter {
 		buttons.add(debugButton).row();
 		buttons.add(zoomButton).row();
 		buttons.add(bgButton).row();
+		buttons.add(profileButton).row();
+		buttons.add(spreadButton).row();
 		buttons.add(fullscreenButton).row();
 		buttons.add(restartButton).row();
 
@@ -173,6 +193,18 @@ class UI extends InputAdapter {
 		menu.add(fpsLabel).expandX().left().row();
 		menu.add("Binds:");
 		menu.add(bindsLabel).left().row();
+		menu.add("Pool:");
+		menu.add(poolLabel).left().row();
+		menu.add("Enemies:");
+		menu.add(lodLabel).left().row();
+		menu.add("Bullets:");
+		menu.add(bulletLabel).left().row();
+		menu.add("Particles:");
+		menu.add(particleLabel).left().row();
+		menu.add("Events:");
+		menu.add(eventLabel).left().row();
+		menu.add("Sounds:");
+		menu.add(soundLabel).left().row();
 		menu.add(buttons).colspan(2).left();
 		menu.setVisible(false);
 
@@ -184,6 +216,12 @@ class UI extends InputAdapter {
 		root.add(healthBar).height(10).fillY().expandX().right().top().row();
 		root.add(menu);
 
+		Table overlay = new Table(skin);
+		stage.addActor(overlay);
+		overlay.bottom().right().pad(5);
+		overlay.setFillParent(true);
+		overlay.add(profileLabel);
+
 		splashTable = new Table(skin);
 		splashTable.setFillParent(true);
 		splashTable.add(splashImage).fillX().row();
@@ -204,6 +242,14 @@ class UI extends InputAdapter {
 			}
 		});
 
+		profileButton.addListener(new ChangeListener() {
+			public void changed (ChangeEvent event, Actor actor) {
+				// The model, view and controller only report their phases while the profiler is set as the probe.
+				model.probe = profileButton.isChecked() ? view.profiler : null;
+				profileLabel.setVisible(profileButton.isChecked());
+			}
+		});
+
 		fullscreenButton.addListener(new ChangeListener() {
 			public void changed (ChangeEvent event, Actor actor) {
 				toggleFullscreen();
@@ -213,14 +259,14 @@ class UI extends InputAdapter {
 		restartButton = button("Restart", false);
 		restartButton.addListener(new ChangeListener() {
 			public void changed (ChangeEvent event, Actor actor) {
-				model.controller.restart();
+				view.controller.restart();
 			}
 		});
 
 		splashTable.addListener(new InputListener() {
 			public boolean touchDown (InputEvent event, float x, float y, int pointer, int button) {
 				if (hasSplash && inputTimer < 0) {
-					model.controller.restart();
+					view.controller.restart();
 					splashTable.clearActions();
 					splashTable.getColor().a = 1;
 					splashTable.addAction(sequence(fadeOut(1, fade), removeActor()));
@@ -283,6 +329,9 @@ class UI extends InputAdapter {
 	}
 
 	void render () {
+		Probe probe = model.probe;
+		if (probe != null) probe.begin(Phase.ui);
+
 		float delta = Gdx.graphics.getDeltaTime();
 		inputTimer -= delta;
 
@@ -306,8 +355,16 @@ class UI extends InputAdapter {
 			shapes.begin(ShapeType.Filled);
 			float w = view.viewport.getWorldWidth(), h = view.viewport.getWorldHeight();
 			int x = (int)(view.camera.position.x - w / 2), y = (int)(view.camera.position.y - h / 2);
-			for (Rectangle rect : model.getCollisionTiles(x, y, x + (int)(w + 0.5f), y + (int)(h + 0.5f))) {
-				shapes.rect(rect.x, rect.y, rect.width, rect.height);
+			int endX = x + (int)(w + 0.5f), endY = y + (int)(h + 0.5f);
+			CollisionMap collisionMap = model.collisionMap;
+			for (int row = y; row <= endY; row++) {
+				// Draw each span of solid tiles as a single rectangle.
+				int start = collisionMap.firstSolidX(row, x, endX);
+				while (start <= endX) {
+					int end = collisionMap.firstEmptyX(row, start, endX);
+					shapes.rect(start, row, end - start, 1);
+					start = collisionMap.firstSolidX(row, end, endX);
+				}
 			}
 			shapes.end();
 		}
@@ -318,8 +375,7 @@ class UI extends InputAdapter {
 		int renderCalls = view.batch.totalRenderCalls + spriteCache.totalRenderCalls;
 		view.batch.totalRenderCalls = 0;
 		spriteCache.totalRenderCalls = 0;
-		fpsLabel.setText(Integer.toString(Gdx.graphics.getFramesPerSecond()));
-		bindsLabel.setText(Integer.toString(renderCalls));
+		if (menu.isVisible()) updateMenuText(renderCalls);
 
 		if (!hasSplash && debugButton.isChecked()) {
 			shapes.setTransformMatrix(view.batch.getTransformMatrix());
@@ -328,19 +384,13 @@ class UI extends InputAdapter {
 
 			shapes.setColor(Color.GREEN);
 
-			FloatArray bullets = model.bullets;
-			for (int i = bullets.size - 5; i >= 0; i -= 5) {
-				float x = bullets.get(i + 2);
-				float y = bullets.get(i + 3);
-				shapes.x(x, y, 10 * scale);
-			}
+			Bullets bullets = model.bullets;
+			for (int i = bullets.size - 1; i >= 0; i--)
+				shapes.x(bullets.x[i], bullets.y[i], 10 * scale);
 
-			FloatArray hits = view.hits;
-			for (int i = hits.size - 4; i >= 0; i -= 4) {
-				float x = hits.get(i + 1);
-				float y = hits.get(i + 2);
-				shapes.x(x, y, 10 * scale);
-			}
+			Particles particles = view.particles;
+			for (int i = particles.count - 1; i >= 0; i--)
+				shapes.x(particles.get(Particles.x, i), particles.get(Particles.y, i), 10 * scale);
 
 			for (Enemy enemy : model.enemies) {
 				Rectangle rect = enemy.rect;
@@ -358,6 +408,10 @@ class UI extends InputAdapter {
 			}
 		}
 
+		if (probe != null) {
+			if (view.profiler.frames % 30 == 0) updateProfileText();
+			probe.begin(Phase.stage);
+		}
 		stage.act();
 		stage.getViewport().apply(true);
 		stage.draw();
@@ -369,6 +423,100 @@ class UI extends InputAdapter {
 		TextureRegion crosshair = view.assets.crosshair;
 		batch.draw(crosshair, cursor.x - crosshair.getRegionWidth() / 2, cursor.y - crosshair.getRegionHeight() / 2 + 2);
 		batch.end();
+
+		if (probe != null) drawProfile();
+	}
+
+	/** Draws a bar for each frame kept by the profiler, with the phases stacked in groups: model steps (green), view update
+	 * (yellow), view render (cyan) and UI (magenta). The line is at 1/60th of a second. */
+	void drawProfile () {
+		Profiler profiler = view.profiler;
+		float pixelsPerMs = 4, baseX = 5, baseY = 5;
+		shapes.setProjectionMatrix(stage.getCamera().combined);
+		shapes.identity();
+		shapes.begin(ShapeType.Filled);
+		for (int frame = 0, n = profiler.size(); frame < n; frame++) {
+			float y = baseY;
+			for (int group = 0; group < 4; group++) {
+				long time = 0;
+				for (int i = profileGroups[group], end = profileGroups[group + 1]; i < end; i++)
+					time += profiler.get(frame, i);
+				float height = time / 1e6f * pixelsPerMs;
+				shapes.setColor(profileColors[group]);
+				shapes.rect(baseX + frame, y, 1, height);
+				y += height;
+			}
+		}
+		shapes.end();
+		shapes.begin(ShapeType.Line);
+		shapes.setColor(Color.WHITE);
+		float y = baseY + 1000 / 60f * pixelsPerMs;
+		shapes.line(baseX, y, baseX + Profiler.history, y);
+		shapes.end();
+	}
+
+	/** Fills the menu labels, reusing one buffer so the stats don't allocate each frame. */
+	void updateMenuText (int renderCalls) {
+		StringBuilder buffer = menuText;
+		buffer.setLength(0);
+		buffer.append(Gdx.graphics.getFramesPerSecond());
+		fpsLabel.setText(buffer);
+
+		buffer.setLength(0);
+		buffer.append(renderCalls);
+		bindsLabel.setText(buffer);
+
+		buffer.setLength(0);
+		buffer.append(model.enemyPool.hits).append(" hits, ").append(model.enemyPool.misses).append(" misses");
+		poolLabel.setText(buffer);
+
+		buffer.setLength(0);
+		buffer.append(model.activeEnemies).append(" active, ").append(model.reducedEnemies).append(" reduced, ")
+			.append(model.dormantEnemies).append(" dormant");
+		lodLabel.setText(buffer);
+
+		Bullets bullets = model.bullets;
+		buffer.setLength(0);
+		buffer.append(bullets.size).append(" of ").append(bullets.capacity).append(", ").append(bullets.dropped)
+			.append(" dropped");
+		bulletLabel.setText(buffer);
+
+		Particles particles = view.particles;
+		buffer.setLength(0);
+		buffer.append(particles.count).append(" of ").append(particles.capacity).append(", ").append(particles.dropped)
+			.append(" dropped");
+		particleLabel.setText(buffer);
+
+		EventQueue events = model.events;
+		buffer.setLength(0);
+		buffer.append(events.lastDrained).append(" last frame, ").append(events.types.length).append(" capacity, ")
+			.append(events.throttled[EventQueue.hitEnemy] + events.throttled[EventQueue.hitBullet]).append(" throttled, ")
+			.append(events.dropped[EventQueue.hitEnemy] + events.dropped[EventQueue.hitBullet]).append(" dropped, ")
+			.append(events.stale).append(" stale");
+		eventLabel.setText(buffer);
+
+		SoundScheduler sounds = view.sounds;
+		buffer.setLength(0);
+		buffer.append(sounds.voiceCount).append(" voices, ").append(sounds.played).append(" played, ").append(sounds.coalesced)
+			.append(" combined, ").append(sounds.culled).append(" culled, ").append(sounds.stolen).append(" stopped");
+		soundLabel.setText(buffer);
+	}
+
+	/** Lists the min, average and 99th percentile milliseconds of each phase that took any time. */
+	void updateProfileText () {
+		StringBuilder buffer = profileText;
+		buffer.setLength(0);
+		buffer.append("min / avg / p99 ms");
+		long[] stats = profileStats;
+		for (int column = Profiler.columns - 1; column >= 0; column--) {
+			view.profiler.stats(column, stats);
+			if (stats[2] == 0) continue;
+			buffer.append('\n').append(Profiler.getName(column)).append(": ");
+			buffer.append(stats[0] / 1000 / 1000f).append(" / ");
+			buffer.append(stats[1] / 1000 / 1000f).append(" / ");
+			buffer.append(stats[2] / 1000 / 1000f);
+		}
+		profileLabel.setText(buffer);
 	}
 
 	void resize (int width, int height) {
@@ -428,6 +576,18 @@ class UI extends InputAdapter {
 		case Keys.I:
 			debugButton.toggle();
 			return true;
+		case Keys.F:
+			profileButton.toggle();
+			return true;
+		case Keys.H:
+			spreadButton.toggle();
+			return true;
+		case Keys.C:
+			if (view.profiler.size() == 0) return false;
+			FileHandle file = Gdx.files.local("profile-" + ++profileSaves + ".csv");
+			view.profiler.save(file);
+			Gdx.app.log("SuperSpineboy", "Saved " + view.profiler.size() + " frames: " + file.file().getAbsolutePath());
+			return true;
 		case Keys.T:
 			view.assets.dispose();
 			Texture.invalidateAllTextures(Gdx.app);
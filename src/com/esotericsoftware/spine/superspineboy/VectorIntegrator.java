@@ -0,0 +1,59 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static com.esotericsoftware.spine.superspineboy.Character.*;
+import static com.esotericsoftware.spine.superspineboy.Model.*;
+import static jdk.incubator.vector.VectorOperators.*;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/** The {@link CharacterStore} loop using the vector API. This class is only loaded when the jdk.incubator.vector module is
+ * present. Lanes are selected with masks where the scalar loop branches. The lane wise min and max have the same semantics as
+ * Math.min and Math.max, so the results are the same bits as the scalar loop. */
+class VectorIntegrator {
+	static final VectorSpecies<Float> species = FloatVector.SPECIES_PREFERRED;
+
+	static void integrate (float[] velocityX, float[] velocityY, float[] airTime, int start, int end, float delta) {
+		float gravityDelta = gravity * delta, groundDamping = dampingGroundX * delta, airDamping = dampingAirX * delta;
+		FloatVector airDampings = FloatVector.broadcast(species, airDamping);
+		int i = start, length = species.length();
+		for (int n = start + species.loopBound(end - start); i < n; i += length) {
+			FloatVector y = FloatVector.fromArray(species, velocityY, i).sub(gravityDelta);
+			y = y.blend(-maxVelocityY, y.lt(0).and(y.neg().compare(GT, maxVelocityY)));
+			y.intoArray(velocityY, i);
+
+			FloatVector damping = airDampings.blend(groundDamping, FloatVector.fromArray(species, airTime, i).lt(groundedTime));
+			FloatVector x = FloatVector.fromArray(species, velocityX, i);
+			x = x.add(damping).min(0).blend(x.sub(damping).max(0), x.compare(GT, 0));
+			x.intoArray(velocityX, i);
+		}
+		CharacterStore.integrate(velocityX, velocityY, airTime, i, end, delta);
+	}
+}
@@ -34,8 +34,11 @@ import static com.esotericsoftware.spine.superspineboy.Model.*;
 import static com.esotericsoftware.spine.superspineboy.Player.*;
 
 import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.AnimationState.TrackEntry;
 import com.esotericsoftware.spine.SkeletonRenderer;
-import com.esotericsoftware.spine.superspineboy.Model.State;
+import com.esotericsoftware.spine.superspineboy.Assets.SoundEffect;
+import com.esotericsoftware.spine.superspineboy.Particles.Emitter;
+import com.esotericsoftware.spine.superspineboy.Probe.Phase;
 import com.esotericsoftware.spine.utils.TwoColorPolygonBatch;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
@@ -49,13 +52,14 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.tiled.renderers.OrthoCachedTiledMapRenderer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ObjectFloatMap;
 import com.badlogic.gdx.utils.viewport.ExtendViewport;
 
 /** The core of the view logic. The view knows about the model and manages everything needed to draw to the screen. */
 class View extends InputAdapter {
 	static float bulletHitTime = 0.2f, bulletHitOffset = 50 * scale;
+	static int maxParticles = 65536;
 
 	static float cameraMinWidth = 16, cameraMaxWidth = 28, cameraHeight = 16, cameraZoom = 0.4f, cameraZoomSpeed = 0.5f;
 	static float cameraBottom = 2, cameraTop = 7, cameraMinX = 1;
@@ -68,6 +72,7 @@ class View extends InputAdapter {
 	static int[] mapForegroundLayers4 = {7, 8,};
 	static int[] mapForegroundLayers5 = {11};
 
+	SuperSpineboy controller;
 	Model model;
 	Player player;
 	OrthographicCamera camera;
@@ -76,14 +81,23 @@ class View extends InputAdapter {
 	SkeletonRenderer skeletonRenderer;
 	OrthoCachedTiledMapRenderer mapRenderer;
 	Assets assets;
-	UI ui;
+	UI ui; // Null when headless, as are the batch, renderers and controller.
 
 	float shakeX, shakeY, lookahead, zoom = 1;
-	FloatArray hits = new FloatArray();
-	boolean touched, jumpPressed, leftPressed, rightPressed;
-
-	View (Model model) {
-		this.model = model;
+	float alpha = 1; // Interpolation between the previous and current simulation steps.
+	float hitSize, bulletHeight; // Nothing is drawn when headless, so these are 0.
+	Vector2 mouse = new Vector2(); // The mouse in world coordinates, where the player aims. Set by the caller when headless.
+	Vector2 temp = new Vector2();
+	Particles particles = new Particles(maxParticles);
+	Emitter hitEmitter = new Emitter(), sparkEmitter = new Emitter(), flashEmitter = new Emitter(), splatEmitter = new Emitter();
+	BulletMesh bulletMesh = new BulletMesh();
+	SoundScheduler sounds;
+	Profiler profiler = new Profiler();
+	boolean touched, leftPressed, rightPressed;
+
+	View (SuperSpineboy controller) {
+		this.controller = controller;
+		model = controller.model;
 
 		mapRenderer = new OrthoCachedTiledMapRenderer(model.map, scale, 3000);
 		mapRenderer.setOverCache(0.6f);
@@ -97,12 +111,131 @@ class View extends InputAdapter {
 		skeletonRenderer.setPremultipliedAlpha(true);
 
 		assets = new Assets();
+		hitSize = assets.hitRegion.getRegionWidth() * scale;
+		bulletHeight = assets.bulletRegion.getRegionHeight() * scale / 2;
+		sounds = new SoundScheduler(new SoundScheduler.GdxBackend(), 16);
+		setupEmitters();
 
 		ui = new UI(this);
 
 		Gdx.input.setInputProcessor(new InputMultiplexer(ui, ui.stage, this));
 
 		restart();
+		fillEnemyPool();
+	}
+
+	/** Creates a view without a GL context, input or UI, so the view's work each frame other than drawing can run headless. The
+	 * assets can be loaded with an attachment loader that needs no textures. */
+	View (Model model, Assets assets, SoundScheduler.Backend soundBackend) {
+		this.model = model;
+		this.assets = assets;
+		camera = new OrthographicCamera(cameraMinWidth, cameraHeight);
+		viewport = new ExtendViewport(cameraMinWidth, cameraHeight, cameraMaxWidth, cameraHeight, camera);
+		viewport.setWorldSize(cameraMinWidth, cameraHeight);
+		sounds = new SoundScheduler(soundBackend, 16);
+		setupEmitters();
+
+		restart();
+		fillEnemyPool();
+	}
+
+	void setupEmitters () {
+		// The marker where a bullet hit, which fades in place.
+		hitEmitter.minLife = hitEmitter.maxLife = bulletHitTime;
+		hitEmitter.minSize = hitEmitter.maxSize = hitSize;
+
+		// Sparks thrown back from where a bullet hit.
+		sparkEmitter.minCount = 2;
+		sparkEmitter.maxCount = 4;
+		sparkEmitter.minLife = 0.1f;
+		sparkEmitter.maxLife = 0.25f;
+		sparkEmitter.spread = 90;
+		sparkEmitter.minSpeed = 4;
+		sparkEmitter.maxSpeed = 10;
+		sparkEmitter.gravity = 30;
+		sparkEmitter.drag = 2;
+		sparkEmitter.minSize = hitSize * 0.1f;
+		sparkEmitter.maxSize = hitSize * 0.2f;
+		sparkEmitter.growth = -hitSize * 0.5f;
+
+		flashEmitter.minCount = 3;
+		flashEmitter.maxCount = 5;
+		flashEmitter.minLife = 0.04f;
+		flashEmitter.maxLife = 0.08f;
+		flashEmitter.spread = 40;
+		flashEmitter.minSpeed = 3;
+		flashEmitter.maxSpeed = 8;
+		flashEmitter.drag = 10;
+		flashEmitter.minSize = hitSize * 0.3f;
+		flashEmitter.maxSize = hitSize * 0.5f;
+		flashEmitter.growth = -hitSize * 3;
+		flashEmitter.color = Color.toFloatBits(1, 0.85f, 0.5f, 1);
+
+		// Goo thrown up when an enemy dies.
+		splatEmitter.minCount = 12;
+		splatEmitter.maxCount = 20;
+		splatEmitter.minLife = 0.4f;
+		splatEmitter.maxLife = 0.9f;
+		splatEmitter.spread = 160;
+		splatEmitter.minSpeed = 3;
+		splatEmitter.maxSpeed = 9;
+		splatEmitter.gravity = 25;
+		splatEmitter.drag = 1;
+		splatEmitter.minSize = hitSize * 0.15f;
+		splatEmitter.maxSize = hitSize * 0.3f;
+		splatEmitter.growth = -hitSize * 0.15f;
+		splatEmitter.minSpin = -180;
+		splatEmitter.maxSpin = 180;
+		splatEmitter.alignAngle = false;
+		splatEmitter.color = Color.toFloatBits(0.4f, 1, 0.3f, 1);
+	}
+
+	/** Adds the marker and sparks for a bullet hit.
+	 * @param angle The marker extends from x,y in the direction of this angle minus 90 degrees, back toward the shooter. */
+	void emitHit (float x, float y, float angle) {
+		float cos = MathUtils.cosDeg(angle), sin = MathUtils.sinDeg(angle);
+		// Particles are centered, so move from the bottom center of the marker to its center.
+		x += sin * (bulletHeight * 0.2f - hitSize / 2);
+		y -= cos * (bulletHeight * 0.2f - hitSize / 2);
+		hitEmitter.emit(particles, x, y, angle);
+		sparkEmitter.emit(particles, x, y, angle + 90);
+	}
+
+	/** Creates views for the pooled enemies while the splash screen is shown, so spawning enemies doesn't allocate. */
+	void fillEnemyPool () {
+		for (Array<Enemy> free : model.enemyPool.free) {
+			for (int i = 0, n = free.size; i < n; i++) {
+				Enemy enemy = free.get(i);
+				if (enemy.view == null) enemy.view = new EnemyView(this, enemy);
+			}
+		}
+	}
+
+	/** Plays the effects for an enemy hitting the player. */
+	void hitPlayer () {
+		sounds.play(SoundEffect.hurtPlayer);
+		PlayerView view = player.view;
+		if (player.hp > 0 && view.hitAnimation != null) {
+			TrackEntry entry = view.animationState.setAnimation(1, view.hitAnimation, false);
+			entry.setTrackEnd(view.hitAnimation.getDuration());
+		}
+	}
+
+	/** Plays the effects for a bullet or the player hitting an enemy at x,y. */
+	void hitEnemy (Enemy enemy, float x, float y) {
+		sounds.play(SoundEffect.hurtAlien, x, y);
+		EnemyView view = enemy.view;
+		if (view != null && view.hitAnimation != null) { // The view is created when the enemy is first drawn.
+			TrackEntry entry = view.animationState.setAnimation(1, view.hitAnimation, false);
+			entry.setTrackEnd(view.hitAnimation.getDuration());
+		}
+	}
+
+	/** Plays the effects for a bullet hitting the map or an enemy at x,y. */
+	void hitBullet (float x, float y, float vx, float vy) {
+		Vector2 offset = temp.set(vx, vy).nor().scl(15 * scale);
+		emitHit(x + offset.x, y + offset.y, temp.angle() + 90);
+		sounds.play(SoundEffect.hit, x, y);
 	}
 
 	void restart () {
@@ -110,39 +243,46 @@ class View extends InputAdapter {
 		player.view = new PlayerView(this);
 		lookahead = 0;
 		touched = false;
-		hits.clear();
+		particles.clear();
 	}
 
 	void update (float delta) {
-		// Update the hit marker images.
-		for (int i = hits.size - 4; i >= 0; i -= 4) {
-			float time = hits.get(i) - delta;
-			if (time < 0)
-				hits.removeRange(i, i + 3);
-			else
-				hits.set(i, time);
-		}
+		Probe probe = model.probe;
+		if (probe != null) probe.begin(Phase.camera);
+
+		particles.update(delta);
 
-		updateInput(delta);
 		updateCamera(delta);
+		if (ui != null) viewport.unproject(mouse.set(Gdx.input.getX(), Gdx.input.getY()));
 
+		if (probe != null) probe.begin(Phase.skeletons);
 		player.view.update(delta);
 
 		for (Enemy enemy : model.enemies) {
-			if (enemy.view == null) enemy.view = new EnemyView(this, enemy);
+			if (enemy.view == null)
+				enemy.view = new EnemyView(this, enemy);
+			else if (enemy.view.generation != enemy.generation) //
+				enemy.view.reset();
 			enemy.view.update(delta);
 		}
+
+		// Play the sounds requested this frame.
+		if (probe != null) probe.begin(Phase.sounds);
+		sounds.setListener(camera.position.x, camera.position.y, viewport.getWorldWidth() / 2, viewport.getWorldHeight() / 2);
+		sounds.update(delta);
+	}
+
+	/** Returns true if the UI shows a splash screen. There is no UI when headless. */
+	boolean hasSplash () {
+		return ui != null && ui.hasSplash;
 	}
 
-	void updateInput (float delta) {
+	/** Sets the model's input for the next step. */
+	void updateInput () {
 		if (player.hp == 0) return;
 
-		if (leftPressed)
-			player.moveLeft(delta);
-		else if (rightPressed)
-			player.moveRight(delta);
-		else if (player.state == State.run) //
-			player.setState(State.idle);
+		model.input.left = leftPressed;
+		model.input.right = rightPressed;
 
 		if (touched) player.view.shoot();
 	}
@@ -171,7 +311,8 @@ class View extends InputAdapter {
 		}
 
 		// Move camera to the player position over time, adjusting for lookahead.
-		float minX = player.position.x + lookahead, maxX = player.position.x + lookahead;
+		float playerX = player.getX(alpha), playerY = player.getY(alpha);
+		float minX = playerX + lookahead, maxX = playerX + lookahead;
 		if (camera.position.x < minX) {
 			camera.position.x += (minX - camera.position.x) * cameraSpeed * delta;
 			if (camera.position.x > minX) camera.position.x = minX;
@@ -185,8 +326,8 @@ class View extends InputAdapter {
 
 		float top = zoom != 1 ? 5 : cameraTop;
 		float bottom = zoom != 1 ? 0 : cameraBottom;
-		float maxY = player.position.y + viewport.getWorldHeight() / 2 - bottom;
-		float minY = player.position.y - viewport.getWorldHeight() / 2 + top;
+		float maxY = playerY + viewport.getWorldHeight() / 2 - bottom;
+		float minY = playerY - viewport.getWorldHeight() / 2 + top;
 		if (camera.position.y < minY) {
 			camera.position.y += (minY - camera.position.y) * cameraSpeed / zoom * delta;
 			if (Math.abs(camera.position.y - minY) < 0.1f) camera.position.y = minY;
@@ -196,8 +337,10 @@ class View extends InputAdapter {
 		}
 
 		camera.update();
-		batch.setProjectionMatrix(camera.combined);
-		mapRenderer.setView(camera);
+		if (batch != null) {
+			batch.setProjectionMatrix(camera.combined);
+			mapRenderer.setView(camera);
+		}
 
 		camera.position.add(-shakeX, -shakeY, 0);
 		shakeX = 0;
@@ -205,6 +348,9 @@ class View extends InputAdapter {
 	}
 
 	void render () {
+		Probe probe = model.probe;
+		if (probe != null) probe.begin(Phase.drawMap);
+
 		viewport.apply();
 
 		Gdx.gl.glClearColor(0, 0, 0, 1);
@@ -218,7 +364,13 @@ class View extends InputAdapter {
 			mapRenderer.render(mapLayersBackground2);
 		}
 
+		if (probe != null) probe.begin(Phase.drawSkeletons);
 		batch.begin();
+		// Draw corpses behind the living enemies.
+		for (Enemy enemy : model.corpses) {
+			enemy.view.skeleton.getColor().a = Math.min(1, enemy.deathTimer / Enemy.fadeTime);
+			skeletonRenderer.draw(batch, enemy.view.skeleton);
+		}
 		// Draw enemies.
 		for (Enemy enemy : model.enemies) {
 			enemy.view.skeleton.getColor().a = Math.min(1, enemy.deathTimer / Enemy.fadeTime);
@@ -229,6 +381,7 @@ class View extends InputAdapter {
 			skeletonRenderer.draw(batch, player.view.skeleton);
 		batch.end();
 
+		if (probe != null) probe.begin(Phase.drawMap);
 		if (ui.bgButton.isChecked()) {
 			mapRenderer.setBlending(false);
 			mapRenderer.render(mapLayersOpaque3);
@@ -237,50 +390,24 @@ class View extends InputAdapter {
 			mapRenderer.render(mapForegroundLayers4);
 		}
 
+		if (probe != null) probe.begin(Phase.drawEffects);
 		batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE);
 		batch.begin();
 
 		// Draw bullets.
 		TextureRegion bulletRegion = assets.bulletRegion;
 		float bulletWidth = bulletRegion.getRegionWidth() * scale;
-		float bulletHeight = bulletRegion.getRegionHeight() * scale / 2;
-		for (int i = 2, n = model.bullets.size; i < n; i += 5) {
-			float x = model.bullets.get(i), y = model.bullets.get(i + 1);
-			float angle = model.bullets.get(i + 2);
-			float vx = MathUtils.cosDeg(angle);
-			float vy = MathUtils.sinDeg(angle);
-			// Adjust position so bullet region is drawn with the bullet position in the center of the fireball.
-			x -= vx * bulletWidth * 0.65f;
-			y -= vy * bulletWidth * 0.65f;
-			x += vy * bulletHeight / 2;
-			y += -vx * bulletHeight / 2;
-			batch.draw(bulletRegion, x, y, 0, 0, bulletWidth, bulletHeight, 1, 1, angle);
-		}
+		bulletMesh.build(model.bullets, bulletRegion, bulletWidth, bulletHeight, batch.getPackedColor());
+		bulletMesh.draw(batch, bulletRegion.getTexture());
 
-		// Draw hit markers.
-		TextureRegion hitRegion = assets.hitRegion;
-		Color color = batch.getColor().set(1, 1, 1, 1);
-		float hitWidth = hitRegion.getRegionWidth() * scale;
-		float hitHeight = hitRegion.getRegionWidth() * scale;
-		for (int i = hits.size - 4; i >= 0; i -= 4) {
-			float time = hits.get(i);
-			float x = hits.get(i + 1);
-			float y = hits.get(i + 2);
-			float angle = hits.get(i + 3);
-			color.a = time / bulletHitTime;
-			batch.setColor(color);
-			float vx = MathUtils.cosDeg(angle);
-			float vy = MathUtils.sinDeg(angle);
-			// Adjust position so bullet region is drawn with the bullet position in the center of the fireball.
-			x += vy * bulletHeight * 0.2f;
-			y += -vx * bulletHeight * 0.2f;
-			batch.draw(hitRegion, x - hitWidth / 2, y, hitWidth / 2, 0, hitWidth, hitHeight, 1, 1, angle);
-		}
-		batch.setColor(Color.WHITE);
+		// Draw particles.
+		particles.build(assets.hitRegion);
+		particles.draw(batch, assets.hitRegion.getTexture());
 
 		batch.end();
 		batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
 
+		if (probe != null) probe.begin(Phase.drawMap);
 		if (ui.bgButton.isChecked()) mapRenderer.render(mapForegroundLayers5);
 
 		ui.render();
@@ -311,8 +438,7 @@ class View extends InputAdapter {
 		case Keys.UP:
 		case Keys.SPACE:
 			if (player.hp == 0) return false;
-			jumpPressed = true;
-			if (player.isGrounded()) player.view.jump();
+			model.input.jump = true;
 			return true;
 		case Keys.A:
 		case Keys.LEFT:
@@ -332,9 +458,8 @@ class View extends InputAdapter {
 		case Keys.UP:
 		case Keys.SPACE:
 			if (player.hp == 0) return false;
-			// Releasing jump on the way up reduces jump height.
-			if (player.velocity.y > 0) player.velocity.y *= jumpDamping;
-			jumpPressed = false;
+			model.input.jump = false;
+			model.input.jumpRelease = true;
 			return true;
 		case Keys.A:
 		case Keys.LEFT:
@@ -0,0 +1,101 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+
+import org.junit.jupiter.api.Test;
+
+/** Checks the vertices {@link BulletMesh} builds for many random bullets against drawing each bullet separately. Doesn't need a
+ * GL context. */
+class BulletMeshTest {
+	static int count = 100000;
+
+	@Test
+	void matchesDrawingEachBullet () {
+		float u = 0.25f, v = 0.5f, u2 = 0.375f, v2 = 0.5625f, width = 1.6f, height = 0.45f, color = Color.WHITE.toFloatBits();
+
+		RandomXS128 random = new RandomXS128(1);
+		Bullets bullets = new Bullets(count, false);
+		for (int i = 0; i < count; i++) {
+			float angle = i < 8 ? i * 45 : random.nextFloat() * 720 - 360;
+			bullets.add(random.nextFloat() * 400, random.nextFloat() * 40, 0, 0, angle);
+		}
+		BulletMesh mesh = new BulletMesh();
+		mesh.build(bullets, u, v, u2, v2, width, height, color);
+		assertEquals(count * BulletMesh.quadSize, mesh.count, "Vertex floats");
+
+		float[] expected = new float[BulletMesh.quadSize];
+		for (int i = 0; i < count; i++) {
+			drawRotated(expected, 0, bullets.x[i], bullets.y[i], bullets.angle[i], u, v, u2, v2, width, height, color);
+			for (int ii = 0; ii < BulletMesh.quadSize; ii++) {
+				float actual = mesh.vertices[i * BulletMesh.quadSize + ii];
+				// Color and texture coordinates are copied, so they must be exact.
+				if (ii % 5 >= 2)
+					assertEquals(expected[ii], actual, "Bullet " + i + ", vertex float " + ii);
+				else
+					assertEquals(expected[ii], actual, 1e-4f, "Bullet " + i + ", vertex float " + ii);
+			}
+		}
+	}
+
+	/** Computes the vertices for a bullet the way they were computed when each bullet was drawn separately: the position is
+	 * adjusted so the fireball is centered, then the region is rotated by the batch. */
+	static void drawRotated (float[] vertices, int offset, float x, float y, float angle, float u, float v, float u2, float v2,
+		float width, float height, float color) {
+		float vx = MathUtils.cosDeg(angle);
+		float vy = MathUtils.sinDeg(angle);
+		x -= vx * width * 0.65f;
+		y -= vy * width * 0.65f;
+		x += vy * height / 2;
+		y += -vx * height / 2;
+
+		// Batch#draw(TextureRegion, x, y, 0, 0, width, height, 1, 1, angle).
+		float cos = MathUtils.cosDeg(angle), sin = MathUtils.sinDeg(angle);
+		float x1 = 0, y1 = 0;
+		float x2 = -sin * height, y2 = cos * height;
+		float x3 = cos * width - sin * height, y3 = sin * width + cos * height;
+		float x4 = x1 + (x3 - x2), y4 = y3 - (y2 - y1);
+		vertex(vertices, offset, x1 + x, y1 + y, color, u, v2);
+		vertex(vertices, offset + 5, x2 + x, y2 + y, color, u, v);
+		vertex(vertices, offset + 10, x3 + x, y3 + y, color, u2, v);
+		vertex(vertices, offset + 15, x4 + x, y4 + y, color, u2, v2);
+	}
+
+	static private void vertex (float[] vertices, int offset, float x, float y, float color, float u, float v) {
+		vertices[offset] = x;
+		vertices[offset + 1] = y;
+		vertices[offset + 2] = color;
+		vertices[offset + 3] = u;
+		vertices[offset + 4] = v;
+	}
+}
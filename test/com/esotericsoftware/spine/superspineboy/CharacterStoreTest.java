@@ -0,0 +1,120 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.RandomXS128;
+
+import org.junit.jupiter.api.Test;
+
+/** Compares the {@link CharacterStore} loops to the per character {@link Character#updateVelocity(float)}, and plays the same
+ * {@link Bot} games with and without batch integration. The results must be the same bits. */
+class CharacterStoreTest {
+	static int count = 2003, games = 20, maxGameTicks = 60 * 60 * 10;
+	static float delta = 1 / 60f;
+
+	@Test
+	void loopsMatchCharacters () {
+		assertTrue(CharacterStore.vectorAvailable, "jdk.incubator.vector module present");
+		Headless.initialize();
+		Model model = new Model(CollisionMap.load(Gdx.files.internal("map/map.tmx"), Model.mapCollisionLayer),
+			Gdx.files.internal("map/triggers.json"));
+		// Every combination of values on the thresholds the loops compare against and zeros of both signs, then random values.
+		RandomXS128 random = new RandomXS128(1234);
+		float[] special = {0, -0f, Float.MIN_VALUE, -Float.MIN_VALUE, Character.maxVelocityY, -Character.maxVelocityY,
+			Character.dampingGroundX * delta, -Character.dampingGroundX * delta, Character.dampingAirX * delta,
+			-Character.dampingAirX * delta, Model.gravity * delta - Character.maxVelocityY, Character.groundedTime};
+		float[] velocityX = new float[count], velocityY = new float[count], airTime = new float[count];
+		int n = special.length, combinations = n * n * n;
+		for (int i = 0; i < count; i++) {
+			boolean combination = i < combinations;
+			velocityX[i] = combination ? special[i % n] : (random.nextFloat() * 2 - 1) * 30;
+			velocityY[i] = combination ? special[i / n % n] : (random.nextFloat() * 2 - 1) * 30;
+			airTime[i] = combination ? special[i / (n * n)] : random.nextFloat() * 0.3f;
+		}
+
+		Character character = new Character(model);
+		float[] expectedX = new float[count], expectedY = new float[count];
+		for (int i = 0; i < count; i++) {
+			character.velocity.set(velocityX[i], velocityY[i]);
+			character.airTime = airTime[i];
+			character.updateVelocity(delta);
+			expectedX[i] = character.velocity.x;
+			expectedY[i] = character.velocity.y;
+		}
+
+		boolean vector = CharacterStore.vector;
+		try {
+			for (boolean useVector : new boolean[] {false, true}) {
+				// An odd start and count leave lanes for the scalar loop on both ends of the vector loop.
+				CharacterStore.vector = useVector;
+				CharacterStore store = new CharacterStore();
+				store.ensureCapacity(count);
+				System.arraycopy(velocityX, 0, store.velocityX, 0, count);
+				System.arraycopy(velocityY, 0, store.velocityY, 0, count);
+				System.arraycopy(airTime, 0, store.airTime, 0, count);
+				store.integrate(0, 1, delta);
+				store.integrate(1, count, delta);
+				String name = useVector ? "Vector" : "Scalar";
+				assertArrayEquals(expectedX, copy(store.velocityX), name + " velocity x");
+				assertArrayEquals(expectedY, copy(store.velocityY), name + " velocity y");
+			}
+		} finally {
+			CharacterStore.vector = vector;
+		}
+	}
+
+	@Test
+	void batchMatchesObjects () {
+		Headless.initialize();
+		Headless headless = new Headless(CollisionMap.load(Gdx.files.internal("map/map.tmx"), Model.mapCollisionLayer),
+			Gdx.files.internal("map/triggers.json"));
+		boolean batchIntegration = Model.batchIntegration, vector = CharacterStore.vector;
+		try {
+			Model.batchIntegration = false;
+			long[] expected = ParallelTest.play(headless);
+
+			Model.batchIntegration = true;
+			for (boolean useVector : new boolean[] {false, true}) {
+				CharacterStore.vector = useVector;
+				assertArrayEquals(expected, ParallelTest.play(headless), useVector ? "Vector batch" : "Scalar batch");
+			}
+		} finally {
+			Model.batchIntegration = batchIntegration;
+			CharacterStore.vector = vector;
+		}
+	}
+
+	static private float[] copy (float[] values) {
+		float[] copy = new float[count];
+		System.arraycopy(values, 0, copy, 0, count);
+		return copy;
+	}
+}
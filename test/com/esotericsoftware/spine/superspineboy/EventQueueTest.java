@@ -0,0 +1,78 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/** Checks the event queue's throttling and overflow with bullet hits, which need no enemies. */
+class EventQueueTest {
+	final EventQueue events = new EventQueue(64);
+	int hitBullets, gameOvers;
+	final Model.Listener listener = new Model.Listener() {
+		public void eventHitPlayer (Enemy enemy) {
+		}
+
+		public void eventHitEnemy (Enemy enemy, float x, float y) {
+		}
+
+		public void eventHitBullet (float x, float y, float vx, float vy) {
+			hitBullets++;
+		}
+
+		public void eventGameOver (boolean win) {
+			gameOvers++;
+		}
+	};
+
+	@Test
+	void hitsThrottled () {
+		// Bullet hits are limited to an eighth of the capacity per frame, the limit resets when drained.
+		for (int frame = 0; frame < 3; frame++) {
+			for (int i = 0; i < 20; i++)
+				events.add(EventQueue.hitBullet, 0, i, 0, 0, 0);
+			assertEquals(8, events.drain(null, listener), "Events drained");
+		}
+		assertEquals(24, hitBullets, "Bullet hits");
+		assertEquals(36, events.throttled[EventQueue.hitBullet], "Bullet hits throttled");
+		assertEquals(0, events.dropped[EventQueue.hitBullet], "Bullet hits dropped");
+	}
+
+	@Test
+	void overflowKeepsGameOver () {
+		// Hits that don't fit are dropped, the reserved slots still take game over.
+		events.limits[EventQueue.hitBullet] = Integer.MAX_VALUE;
+		for (int i = 0; i < 100; i++)
+			events.add(EventQueue.hitBullet, 0, i, 0, 0, 0);
+		events.add(EventQueue.gameOver, 1, 0, 0, 0, 0);
+		assertEquals(64 - EventQueue.reserved + 1, events.drain(null, listener), "Events drained");
+		assertEquals(100 - 64 + EventQueue.reserved, events.dropped[EventQueue.hitBullet], "Bullet hits dropped");
+		assertEquals(1, gameOvers, "Game overs");
+	}
+}
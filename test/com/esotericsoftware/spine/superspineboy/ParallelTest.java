@@ -0,0 +1,81 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.Gdx;
+
+import org.junit.jupiter.api.Test;
+
+/** Plays the same {@link Bot} games with the enemies updated on one thread and in parallel. Every game must end in the same
+ * state. */
+class ParallelTest {
+	static int games = 20, maxGameTicks = 60 * 60 * 10;
+	static float delta = 1 / 60f;
+
+	@Test
+	void parallelMatchesOneThread () {
+		Headless.initialize();
+		Headless headless = new Headless(CollisionMap.load(Gdx.files.internal("map/map.tmx"), Model.mapCollisionLayer),
+			Gdx.files.internal("map/triggers.json"));
+		boolean parallelEnemies = Model.parallelEnemies;
+		int parallelChunkSize = Model.parallelChunkSize;
+		try {
+			Model.parallelEnemies = false;
+			long[] expected = play(headless);
+
+			// Small chunks split the enemies across many tasks, so the order the tasks finish in varies the most.
+			Model.parallelEnemies = true;
+			for (int chunkSize : new int[] {parallelChunkSize, 4}) {
+				Model.parallelChunkSize = chunkSize;
+				assertArrayEquals(expected, play(headless), "Parallel with chunks of " + chunkSize);
+			}
+		} finally {
+			Model.parallelEnemies = parallelEnemies;
+			Model.parallelChunkSize = parallelChunkSize;
+		}
+	}
+
+	/** Returns the state hash at the end of each game. */
+	static long[] play (Headless headless) {
+		Model model = headless.model;
+		Bot bot = new Bot();
+		long[] hashes = new long[games];
+		for (int game = 0; game < games; game++) {
+			headless.restart(game);
+			bot.restart(game);
+			for (int tick = 0; tick < maxGameTicks && !headless.gameOver; tick++) {
+				bot.update(model, model.input);
+				headless.update(delta);
+			}
+			hashes[game] = model.getStateHash();
+		}
+		return hashes;
+	}
+}
@@ -0,0 +1,87 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.spine.superspineboy.Particles.Emitter;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+/** Keeps tens of thousands of particles alive, as if they were drawn every frame, and fails if doing so allocates. Doesn't need a
+ * GL context. */
+class ParticlesTest {
+	static int target = 50000, warmupFrames = 60 * 60, frames = 60 * 10;
+	static float delta = 1 / 60f;
+
+	final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+	@Test
+	void noAllocation () {
+		Emitter emitter = new Emitter();
+		emitter.minCount = 20;
+		emitter.maxCount = 40;
+		emitter.minLife = 0.5f;
+		emitter.maxLife = 2;
+		emitter.spread = 360;
+		emitter.maxSpeed = 10;
+		emitter.gravity = 9.8f;
+		emitter.drag = 0.5f;
+		emitter.minSize = 0.2f;
+		emitter.maxSize = 0.6f;
+		emitter.growth = -0.1f;
+		emitter.minSpin = -90;
+		emitter.maxSpin = 90;
+		emitter.alignAngle = false;
+
+		// Warming up also measures, so the measuring code allocates nothing by the time it counts.
+		Particles particles = new Particles(target * 2);
+		for (int i = 0; i < warmupFrames; i++)
+			frame(particles, emitter);
+
+		long allocated = 0;
+		for (int i = 0; i < frames; i++)
+			allocated += frame(particles, emitter);
+		assertEquals(0, allocated, "Bytes allocated in " + frames + " frames");
+	}
+
+	/** Emits particles up to the target, then updates them and builds their vertices.
+	 * @return The bytes allocated. */
+	private long frame (Particles particles, Emitter emitter) {
+		long bytes = threads.getCurrentThreadAllocatedBytes();
+		while (particles.count < target)
+			emitter.emit(particles, MathUtils.random(100f), MathUtils.random(20f), 90);
+		particles.update(delta);
+		particles.build(0, 0, 1, 1);
+		return threads.getCurrentThreadAllocatedBytes() - bytes;
+	}
+}
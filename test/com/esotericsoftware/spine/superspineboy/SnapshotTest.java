@@ -0,0 +1,165 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/** Saves a {@link Snapshot} of a {@link Bot} game and checks that a model restored from it continues identically, keeps its
+ * enemies and that saving and restoring stays within {@link #budget}. */
+class SnapshotTest {
+	static long seed = 1;
+	static int startTicks = 60 * 30, ticks = 6000, rollbackTicks = 600, warmups = 20000, timings = 2000;
+	static float budget = 100; // Microseconds for the 99th percentile.
+	static float delta = 1 / 60f;
+
+	static CollisionMap collisionMap;
+	static FileHandle triggersFile;
+
+	@BeforeAll
+	static void load () {
+		Headless.initialize();
+		collisionMap = CollisionMap.load(Gdx.files.internal("map/map.tmx"), Model.mapCollisionLayer);
+		triggersFile = Gdx.files.internal("map/triggers.json");
+	}
+
+	@Test
+	void restoredModelContinuesIdentically () {
+		Bot bot = new Bot();
+		Headless original = start(bot);
+		Snapshot snapshot = new Snapshot();
+		snapshot.save(original.model);
+		Headless restored = new Headless(collisionMap, triggersFile);
+		snapshot.restore(restored.model);
+		assertEquals(original.model.getStateHash(), restored.model.getStateHash(), "State hash after restoring");
+
+		// The bot decides once from the original model and both models get the same input.
+		for (int i = 1; i <= ticks; i++) {
+			bot.update(original.model, original.model.input);
+			restored.model.input.set(original.model.input);
+			original.update(delta);
+			restored.update(delta);
+			assertEquals(original.model.getStateHash(), restored.model.getStateHash(), "State hash after tick " + i);
+		}
+	}
+
+	@Test
+	void restoreKeepsEnemies () {
+		Bot bot = new Bot();
+		Headless headless = start(bot);
+		Model model = headless.model;
+		Snapshot snapshot = new Snapshot();
+		snapshot.save(model);
+		long[] saved = identities(model);
+
+		// Play on, so enemies die and are reused from the pool, then go back to the snapshot.
+		PlayerInput[] inputs = new PlayerInput[rollbackTicks];
+		int hits = model.enemyPool.hits;
+		for (int i = 0; i < rollbackTicks; i++) {
+			bot.update(model, model.input);
+			inputs[i] = new PlayerInput();
+			inputs[i].set(model.input);
+			headless.update(delta);
+		}
+		assertTrue(model.enemyPool.hits > hits, "Enemies were reused");
+		long hash = model.getStateHash();
+		long[] played = identities(model);
+
+		// Enemies are restored with the id and generation they had, so their views and queued events stay valid.
+		snapshot.restore(model);
+		assertArrayEquals(saved, identities(model), "Enemy ids and generations after restoring");
+
+		// Simulating the same input again spawns and reuses the same enemies.
+		for (int i = 0; i < rollbackTicks; i++) {
+			model.input.set(inputs[i]);
+			headless.update(delta);
+		}
+		assertEquals(hash, model.getStateHash(), "State hash after simulating again");
+		assertArrayEquals(played, identities(model), "Enemy ids and generations after simulating again");
+	}
+
+	@Test
+	void withinBudget () {
+		Headless original = start(new Bot());
+		Headless restored = new Headless(collisionMap, triggersFile);
+		Snapshot snapshot = new Snapshot();
+
+		// Warming up lets the JIT finish compiling first, else its threads compete for the CPU while timing.
+		long[] saveTimes = new long[timings], restoreTimes = new long[timings];
+		for (int i = 0, n = warmups + timings; i < n; i++) {
+			int index = i % timings;
+			long start = System.nanoTime();
+			snapshot.save(original.model);
+			long saved = System.nanoTime();
+			snapshot.restore(restored.model);
+			long end = System.nanoTime();
+			saveTimes[index] = saved - start;
+			restoreTimes[index] = end - saved;
+		}
+		float save = percentile(saveTimes), restore = percentile(restoreTimes);
+		assertTrue(save <= budget, "Save p99 " + save + " us for " + snapshot.buffer.limit() + " bytes");
+		assertTrue(restore <= budget, "Restore p99 " + restore + " us for " + snapshot.buffer.limit() + " bytes");
+	}
+
+	/** Returns a game the bot has played for {@link #startTicks}. */
+	private Headless start (Bot bot) {
+		Headless headless = new Headless(collisionMap, triggersFile);
+		headless.restart(seed);
+		bot.restart(seed);
+		for (int i = 0; i < startTicks && !headless.gameOver; i++) {
+			bot.update(headless.model, headless.model.input);
+			headless.update(delta);
+		}
+		assertFalse(headless.gameOver, "Game over before the snapshot");
+		return headless;
+	}
+
+	/** Returns the id and generation of each enemy and corpse. */
+	static private long[] identities (Model model) {
+		long[] identities = new long[model.enemies.size + model.corpses.size];
+		int i = 0;
+		for (Enemy enemy : model.enemies)
+			identities[i++] = (long)enemy.id << 32 | enemy.generation;
+		for (Enemy corpse : model.corpses)
+			identities[i++] = (long)corpse.id << 32 | corpse.generation;
+		return identities;
+	}
+
+	/** Returns the 99th percentile in microseconds. Sorts the times. */
+	static private float percentile (long[] times) {
+		Arrays.sort(times);
+		return times[(int)(times.length * 0.99f)] / 1000f;
+	}
+}
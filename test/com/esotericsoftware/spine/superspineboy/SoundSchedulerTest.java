@@ -0,0 +1,88 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.superspineboy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.esotericsoftware.spine.superspineboy.Assets.SoundEffect;
+import com.esotericsoftware.spine.superspineboy.SoundScheduler.MockBackend;
+
+import org.junit.jupiter.api.Test;
+
+/** Checks the voice counts for bursts of sounds using the mock backend. */
+class SoundSchedulerTest {
+	final MockBackend backend = new MockBackend();
+	final SoundScheduler scheduler = new SoundScheduler(backend, 8);
+
+	SoundSchedulerTest () {
+		scheduler.setListener(0, 0, 10, 5);
+	}
+
+	@Test
+	void burstIsOneVoice () {
+		// 14 smalls dying in the same frame are one voice, as loud as the volumes summed.
+		for (int i = 0; i < 14; i++)
+			scheduler.play(SoundEffect.squish, i * 0.5f, 0);
+		scheduler.update(1 / 60f);
+		assertEquals(1, backend.plays[SoundEffect.squish.ordinal()], "Squish burst voices");
+		assertEquals(1, backend.volumes[SoundEffect.squish.ordinal()], "Squish burst volume");
+	}
+
+	@Test
+	void voicesWithinLimit () {
+		// Full auto for 3 seconds never has more shoot voices than the limit.
+		for (int frame = 0; frame < 180; frame++) {
+			if (frame % 6 == 0) scheduler.play(SoundEffect.shoot);
+			scheduler.update(1 / 60f);
+			assertTrue(scheduler.getVoices(SoundEffect.shoot) <= SoundEffect.shoot.maxVoices, "Shoot voices within limit");
+		}
+		assertEquals(30, backend.plays[SoundEffect.shoot.ordinal()], "Shots played");
+	}
+
+	@Test
+	void farSoundsCulled () {
+		// Far away sounds are culled, sounds just outside the camera are quieter.
+		scheduler.play(SoundEffect.hit, 10 + SoundScheduler.cullDistance + 1, 0);
+		scheduler.update(1 / 60f);
+		assertEquals(0, backend.plays[SoundEffect.hit.ordinal()], "Far hits played");
+		scheduler.play(SoundEffect.hit, 10 + SoundScheduler.cullDistance / 2, 0);
+		scheduler.update(1 / 60f);
+		assertEquals(1, backend.plays[SoundEffect.hit.ordinal()], "Near hits played");
+		assertTrue(backend.volumes[SoundEffect.hit.ordinal()] < SoundEffect.hit.volume, "Near hit is attenuated");
+	}
+
+	@Test
+	void priority () {
+		// When all voices are used, low priority sounds don't stop higher priority ones.
+		for (SoundEffect effect : SoundScheduler.effects)
+			scheduler.play(effect);
+		scheduler.update(0);
+		assertTrue(scheduler.voiceCount <= scheduler.maxVoices, "Total voices within limit");
+		assertEquals(1, scheduler.getVoices(SoundEffect.hurtPlayer), "Highest priority sound voices");
+	}
+}
@@ -0,0 +1,188 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Probe.Phase;
+
+import java.lang.management.ManagementFactory;
+
+/** Fails when a step allocates more than {@link #budget} bytes, so garbage in the per frame code paths can't creep back in
+ * unnoticed. A {@link Bot} plays the level with a headless {@link View} until every pool and buffer has grown to its working
+ * size, then each phase of each step is measured with the thread's allocated bytes. Everything the game does each frame is
+ * covered except drawing, which needs a GL context: events, the camera, skeletons and animation states, particles, sounds and
+ * building the bullet and particle vertices. Run by AllocationGateTest with the tests, or from the command line where static
+ * fields can be set like {@link Balance}, eg "AllocationGate.budget=64". Exits with status 1 on failure. */
+class AllocationGate implements Probe, Model.Listener {
+	static int warmupTicks = 60 * 60 * 5, ticks = 60 * 60 * 2;
+	static int budget = 0; // Bytes per step.
+	static float delta = 1 / 60f;
+	static final Phase[] phases = Phase.values();
+
+	final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+	final long[] stepBytes = new long[phases.length], totalBytes = new long[phases.length], maxBytes = new long[phases.length];
+	final int[] allocatingSteps = new int[phases.length];
+	final boolean[] entered = new boolean[phases.length];
+	Phase phase;
+	long lastBytes;
+
+	final Headless headless;
+	final Model model;
+	final View view;
+	final Bot bot = new Bot();
+	int games, failures;
+
+	AllocationGate () {
+		headless = new Headless();
+		model = headless.model;
+		headless.restart(0);
+		bot.restart(0);
+		view = new View(model, new Assets(new HeadlessAttachmentLoader()), new SoundScheduler.MockBackend());
+		view.alpha = 1;
+	}
+
+	public void begin (Phase phase) {
+		long bytes = threadBean.getCurrentThreadAllocatedBytes();
+		if (this.phase != null) stepBytes[this.phase.ordinal()] += bytes - lastBytes;
+		this.phase = phase;
+		entered[phase.ordinal()] = true;
+		// Read again so the probe's own overhead isn't counted.
+		lastBytes = threadBean.getCurrentThreadAllocatedBytes();
+	}
+
+	public void end () {
+		long bytes = threadBean.getCurrentThreadAllocatedBytes();
+		if (phase != null) stepBytes[phase.ordinal()] += bytes - lastBytes;
+		phase = null;
+	}
+
+	/** Plays one step the way the game does, with the same phases. */
+	void step () {
+		if (headless.gameOver) {
+			games++;
+			headless.restart(games);
+			bot.restart(games);
+			view.restart();
+		}
+		begin(Phase.input);
+		bot.update(model, model.input);
+		model.update(delta);
+		begin(Phase.events);
+		model.events.drain(model.enemyPool, this);
+		// Aim ahead of the player, where the mouse usually is.
+		Player player = model.player;
+		view.mouse.set(player.position.x + player.dir * 5, player.position.y + 1);
+		view.update(delta);
+		begin(Phase.drawEffects);
+		view.bulletMesh.build(model.bullets, 0, 0, 1, 1, 1.6f, 0.45f, 0);
+		view.particles.build(0, 0, 1, 1);
+		end();
+	}
+
+	/** Returns true if the step was within the budget. Failures are reported for ticks >= 0. */
+	boolean measure (int tick) {
+		long total = 0;
+		for (int i = 0, n = phases.length; i < n; i++) {
+			long bytes = stepBytes[i];
+			total += bytes;
+			totalBytes[i] += bytes;
+			maxBytes[i] = Math.max(maxBytes[i], bytes);
+			if (bytes > 0) allocatingSteps[i]++;
+		}
+		boolean passed = total <= budget;
+		if (!passed && tick >= 0) {
+			failures++;
+			if (failures <= 10) {
+				StringBuilder buffer = new StringBuilder();
+				buffer.append("Step ").append(tick).append(" allocated ").append(total).append(" bytes:");
+				for (int i = 0, n = phases.length; i < n; i++)
+					if (stepBytes[i] > 0) buffer.append(' ').append(phases[i]).append('=').append(stepBytes[i]);
+				System.out.println(buffer);
+			}
+		}
+		for (int i = 0, n = phases.length; i < n; i++)
+			stepBytes[i] = 0;
+		return passed;
+	}
+
+	public void eventHitPlayer (Enemy enemy) {
+		view.hitPlayer();
+	}
+
+	public void eventHitEnemy (Enemy enemy, float x, float y) {
+		view.hitEnemy(enemy, x, y);
+	}
+
+	public void eventHitBullet (float x, float y, float vx, float vy) {
+		view.hitBullet(x, y, vx, vy);
+	}
+
+	public void eventGameOver (boolean win) {
+		headless.eventGameOver(win);
+	}
+
+	/** Warms up, then measures {@link #ticks} steps. */
+	void run () {
+		if (!threadBean.isThreadAllocatedMemorySupported()) throw new IllegalStateException("Allocation can't be measured.");
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		model.probe = this;
+
+		for (int i = 0; i < warmupTicks; i++) {
+			step();
+			measure(i - warmupTicks);
+		}
+		for (int i = 0, n = phases.length; i < n; i++) {
+			totalBytes[i] = 0;
+			maxBytes[i] = 0;
+			allocatingSteps[i] = 0;
+		}
+
+		for (int i = 0; i < ticks; i++) {
+			step();
+			measure(i);
+		}
+
+		System.out.println("Phase\tTotal bytes\tMax bytes per step\tSteps allocating");
+		for (int i = 0, n = phases.length; i < n; i++) {
+			if (!entered[i]) continue;
+			System.out.println(phases[i] + "\t" + totalBytes[i] + "\t" + maxBytes[i] + "\t" + allocatingSteps[i]);
+		}
+		System.out.println(ticks + " steps, " + games + " games, " + failures + " steps over the budget of " + budget + " bytes");
+	}
+
+	/** Arguments: [Class.field=value ...] */
+	public static void main (String[] args) throws Exception {
+		Headless.initialize();
+		for (String arg : args)
+			Balance.set(arg);
+
+		AllocationGate gate = new AllocationGate();
+		gate.run();
+		if (gate.failures > 0) System.exit(1);
+	}
+}
@@ -0,0 +1,222 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Model.State;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Plays many complete games headless on all cores with a {@link Bot} and reports statistics for tuning the enemies and triggers.
+ * Static fields can be set from the command line to try different values, eg "Enemy.hpStrong=6". */
+class Balance {
+	static int maxGameTicks = 60 * 60 * 10;
+	static float delta = 1 / 60f;
+
+	int games, wins, timeouts;
+	long winTicks;
+	long peakEnemiesTotal;
+	int peakEnemiesMax;
+	long ticks, activeEnemies, reducedEnemies, dormantEnemies;
+	final FloatArray zoneStarts = new FloatArray();
+	final int[] triggerZones; // Indexed by the number of triggers that had fired.
+	final int[] zoneHits, zoneDeaths;
+
+	/** Creates one zone per distinct trigger x, since triggers that share an x fire together. */
+	Balance (Array<Model.Trigger> triggers) {
+		zoneStarts.add(0);
+		triggerZones = new int[triggers.size + 1];
+		for (int i = 0, n = triggers.size; i < n; i++) {
+			float x = triggers.get(i).x;
+			if (x != zoneStarts.peek()) zoneStarts.add(x);
+			triggerZones[i + 1] = zoneStarts.size - 1;
+		}
+		zoneHits = new int[zoneStarts.size];
+		zoneDeaths = new int[zoneStarts.size];
+	}
+
+	void add (Balance other) {
+		games += other.games;
+		wins += other.wins;
+		timeouts += other.timeouts;
+		winTicks += other.winTicks;
+		peakEnemiesTotal += other.peakEnemiesTotal;
+		peakEnemiesMax = Math.max(peakEnemiesMax, other.peakEnemiesMax);
+		ticks += other.ticks;
+		activeEnemies += other.activeEnemies;
+		reducedEnemies += other.reducedEnemies;
+		dormantEnemies += other.dormantEnemies;
+		for (int i = 0; i < zoneHits.length; i++) {
+			zoneHits[i] += other.zoneHits[i];
+			zoneDeaths[i] += other.zoneDeaths[i];
+		}
+	}
+
+	String report (int threads, float seconds) {
+		StringBuilder buffer = new StringBuilder(1024);
+		buffer.append("Games: ").append(games).append(" on ").append(threads).append(" threads in ").append(seconds)
+			.append(" s, ").append((int)(games / seconds)).append(" games/sec\n");
+		buffer.append("Win rate: ").append(percent(wins, games)).append("%, timeouts: ").append(timeouts).append('\n');
+		buffer.append("Time to clear: ").append(wins == 0 ? "-" : String.valueOf(winTicks * delta / wins)).append(" s\n");
+		buffer.append("Peak enemies: ").append(peakEnemiesTotal / (float)games).append(" average, ").append(peakEnemiesMax)
+			.append(" max\n");
+		buffer.append("Enemies per step: ").append(activeEnemies / (float)ticks).append(" active, ")
+			.append(reducedEnemies / (float)ticks).append(" reduced, ").append(dormantEnemies / (float)ticks)
+			.append(" dormant\n");
+		buffer.append("Zone\tStart x\tHits/game\tDeaths\n");
+		for (int i = 0; i < zoneHits.length; i++) {
+			buffer.append(i).append('\t').append(zoneStarts.get(i)).append('\t');
+			buffer.append(zoneHits[i] / (float)games).append('\t').append(zoneDeaths[i]).append('\n');
+		}
+		return buffer.toString();
+	}
+
+	static private float percent (int count, int total) {
+		return total == 0 ? 0 : Math.round(count * 1000f / total) / 10f;
+	}
+
+	/** Plays games on one thread until all games have been claimed. */
+	static class Worker extends Headless implements Runnable {
+		final AtomicInteger nextGame;
+		final int gameCount;
+		final Bot bot = new Bot();
+		final Balance balance;
+
+		Worker (CollisionMap collisionMap, FileHandle triggersFile, AtomicInteger nextGame, int gameCount) {
+			super(collisionMap, triggersFile);
+			this.nextGame = nextGame;
+			this.gameCount = gameCount;
+			balance = new Balance(model.triggers);
+		}
+
+		public void run () {
+			Model model = this.model;
+			while (true) {
+				int game = nextGame.getAndIncrement();
+				if (game >= gameCount) break;
+				restart(game);
+				bot.restart(game);
+
+				int ticks = 0, peakEnemies = 0;
+				for (; ticks < maxGameTicks && !gameOver; ticks++) {
+					bot.update(model, model.input);
+					update(delta);
+					int alive = 0;
+					Array<Enemy> enemies = model.enemies;
+					for (int i = 0, n = enemies.size; i < n; i++)
+						if (enemies.get(i).state != State.death) alive++;
+					peakEnemies = Math.max(peakEnemies, alive);
+					balance.activeEnemies += model.activeEnemies;
+					balance.reducedEnemies += model.reducedEnemies;
+					balance.dormantEnemies += model.dormantEnemies;
+				}
+
+				balance.games++;
+				balance.ticks += ticks;
+				if (win) {
+					balance.wins++;
+					balance.winTicks += ticks;
+				} else if (gameOver)
+					balance.zoneDeaths[balance.triggerZones[model.triggerIndex]]++;
+				else
+					balance.timeouts++;
+				balance.peakEnemiesTotal += peakEnemies;
+				balance.peakEnemiesMax = Math.max(balance.peakEnemiesMax, peakEnemies);
+			}
+		}
+
+		public void eventHitPlayer (Enemy enemy) {
+			balance.zoneHits[balance.triggerZones[model.triggerIndex]]++;
+		}
+	}
+
+	/** Sets a static field in this package, eg "Enemy.hpStrong=6". */
+	static void set (String assignment) throws Exception {
+		int equals = assignment.indexOf('='), dot = assignment.lastIndexOf('.', equals);
+		if (equals == -1 || dot == -1) throw new IllegalArgumentException("Expected Class.field=value: " + assignment);
+		Class type = Class.forName(Balance.class.getPackage().getName() + "." + assignment.substring(0, dot));
+		Field field = type.getDeclaredField(assignment.substring(dot + 1, equals));
+		field.setAccessible(true);
+		String value = assignment.substring(equals + 1);
+		if (field.getType() == float.class)
+			field.setFloat(null, Float.parseFloat(value));
+		else if (field.getType() == int.class)
+			field.setInt(null, Integer.parseInt(value));
+		else if (field.getType() == boolean.class)
+			field.setBoolean(null, Boolean.parseBoolean(value));
+		else
+			throw new IllegalArgumentException("Unsupported field type: " + assignment);
+	}
+
+	/** Arguments: [games] [report file] [Class.field=value ...] */
+	public static void main (String[] args) throws Exception {
+		Headless.initialize();
+		int gameCount = 1000;
+		String reportFile = null;
+		int positional = 0;
+		for (String arg : args) {
+			if (arg.indexOf('=') != -1)
+				set(arg);
+			else if (positional++ == 0)
+				gameCount = Integer.parseInt(arg);
+			else
+				reportFile = arg;
+		}
+
+		CollisionMap collisionMap = CollisionMap.load(Gdx.files.internal("map/map.tmx"), Model.mapCollisionLayer);
+		FileHandle triggersFile = Gdx.files.internal("map/triggers.json");
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		AtomicInteger nextGame = new AtomicInteger();
+		Worker[] workers = new Worker[threadCount];
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			workers[i] = new Worker(collisionMap, triggersFile, nextGame, gameCount);
+			threads[i] = new Thread(workers[i], "Balance " + i);
+		}
+
+		long start = System.nanoTime();
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+		float seconds = (System.nanoTime() - start) / 1e9f;
+
+		Balance total = new Balance(workers[0].model.triggers);
+		for (Worker worker : workers)
+			total.add(worker.balance);
+		String report = total.report(threadCount, seconds);
+		System.out.print(report);
+		if (reportFile != null) new FileHandle(reportFile).writeString(report, false);
+	}
+}
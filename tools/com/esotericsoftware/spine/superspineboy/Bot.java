@@ -0,0 +1,152 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Model.State;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+
+/** A scripted player for headless games. It advances right while no enemy is close ahead, shoots at the nearest enemy in range,
+ * backs away from enemies that get close and jumps over gaps, walls and enemies it can't back away from. After the last trigger
+ * it goes after the enemies that are left. */
+class Bot {
+	static float range = 20, rangeY = 8, aimJitter = 3;
+	// Advance only while no enemy is within holdDistance ahead. Back away from enemies within retreatDistance, unless another
+	// is within retreatDistance behind, then jump over the one ahead when it is within jumpDistance.
+	static float holdDistance = 16, retreatDistance = 8, jumpDistance = 2.5f;
+	static int gapDepth = 3; // Jump when the floor ahead drops at least this many tiles.
+
+	final RandomXS128 random = new RandomXS128();
+	int stuckTicks, backTicks;
+	float lastX;
+
+	void restart (long seed) {
+		random.setSeed(seed);
+		stuckTicks = 0;
+		backTicks = 0;
+		lastX = 0;
+	}
+
+	/** Sets the input of the first player for the next step. */
+	void update (Model model, PlayerInput input) {
+		update(model, model.player, input);
+	}
+
+	/** Sets the input of the specified player for the next step. */
+	void update (Model model, Player player, PlayerInput input) {
+		input.left = false;
+		input.right = false;
+		input.jump = false;
+		input.jumpRelease = false;
+		input.shoot = false;
+
+		float centerX = player.position.x + Player.width / 2;
+		float gunX = centerX, gunY = player.position.y + Player.height * 0.6f;
+		Enemy target = null, nearest = null;
+		float targetDistance = range, nearestDistance = Float.MAX_VALUE;
+		float ahead = Float.MAX_VALUE, behind = Float.MAX_VALUE; // Distance to the nearest enemy on each side.
+		Array<Enemy> enemies = model.enemies;
+		for (int i = 0, n = enemies.size; i < n; i++) {
+			Enemy enemy = enemies.get(i);
+			if (enemy.state == State.death) continue;
+			float dx = enemy.rect.x + enemy.rect.width / 2 - gunX, dy = enemy.rect.y + enemy.rect.height / 2 - gunY;
+			float distance = Math.abs(dx);
+			if (distance < nearestDistance) {
+				nearest = enemy;
+				nearestDistance = distance;
+			}
+			if (Math.abs(dy) > rangeY) continue;
+			if (distance < targetDistance) {
+				target = enemy;
+				targetDistance = distance;
+			}
+			// The edge of the enemy nearest the player.
+			float gap = Math.max(0, distance - enemy.rect.width / 2 - Player.width / 2);
+			if (dx > 0)
+				ahead = Math.min(ahead, gap);
+			else
+				behind = Math.min(behind, gap);
+		}
+
+		if (target != null) {
+			float dx = target.rect.x + target.rect.width / 2 - gunX, dy = target.rect.y + target.rect.height / 2 - gunY;
+			float angle = MathUtils.atan2(dy, dx) + (random.nextFloat() * 2 - 1) * aimJitter * MathUtils.degRad;
+			input.shoot = true;
+			input.shootX = gunX;
+			input.shootY = gunY;
+			input.shootVelocityX = MathUtils.cos(angle) * Player.bulletSpeed;
+			input.shootVelocityY = MathUtils.sin(angle) * Player.bulletSpeed;
+		}
+
+		// Back away from the nearer of the enemies that are too close, else advance if nothing is close ahead. Once every trigger
+		// has fired, go after the enemies that are left.
+		if (ahead < retreatDistance && behind > retreatDistance)
+			input.left = true;
+		else if (behind < retreatDistance && ahead > retreatDistance)
+			input.right = true;
+		else if (ahead < retreatDistance)
+			input.jump = ahead < jumpDistance;
+		else if (ahead > holdDistance) {
+			if (target == null && nearest != null && model.triggerIndex == model.triggers.size)
+				input.left = nearest.position.x < player.position.x;
+			input.right = !input.left;
+		}
+
+		// Jump over gaps and walls. If jumping doesn't get past a wall, back up to get a run at it.
+		boolean moving = input.left || input.right;
+		if (moving && player.isGrounded() && Math.abs(player.position.x - lastX) < 0.01f)
+			stuckTicks++;
+		else
+			stuckTicks = 0;
+		lastX = player.position.x;
+		if (stuckTicks > 60) {
+			stuckTicks = 0;
+			backTicks = 10 + random.nextInt(30);
+		}
+		if (backTicks > 0) {
+			backTicks--;
+			boolean right = input.right;
+			input.right = input.left;
+			input.left = right;
+			input.jump = false;
+		} else if (player.isGrounded() && moving)
+			input.jump |= stuckTicks > 10 || isGapAhead(model.collisionMap, player, input.right ? 1 : -1);
+	}
+
+	/** Returns true if the floor drops at least {@link #gapDepth} tiles just ahead of the player. */
+	boolean isGapAhead (CollisionMap map, Player player, int dir) {
+		int x = MathUtils.floor(player.position.x + Player.width / 2 + dir * (Player.width / 2 + 1));
+		int y = MathUtils.floor(player.position.y);
+		for (int i = 1; i <= gapDepth; i++)
+			if (map.isSolid(x, y - i)) return false;
+		return true;
+	}
+}
@@ -0,0 +1,109 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl.LwjglFiles;
+import com.badlogic.gdx.files.FileHandle;
+
+/** Runs the model without a window or GL context. Only the collision layer of the map is loaded and model events are ignored, so
+ * the simulation can run as fast as possible, eg for testing and benchmarking on machines without a GPU. */
+class Headless implements Model.Listener {
+	Model model;
+	boolean gameOver, win;
+
+	Headless () {
+		this(Gdx.files.internal("map/map.tmx"), Gdx.files.internal("map/triggers.json"));
+	}
+
+	Headless (FileHandle mapFile, FileHandle triggersFile) {
+		this(CollisionMap.load(mapFile, Model.mapCollisionLayer), triggersFile);
+	}
+
+	/** The collision map is only read by the model, so it can be shared by models on different threads. */
+	Headless (CollisionMap collisionMap, FileHandle triggersFile) {
+		model = new Model(collisionMap, triggersFile);
+	}
+
+	/** Updates the model and sends its events to this listener. */
+	void update (float delta) {
+		model.update(delta);
+		model.events.drain(model.enemyPool, this);
+	}
+
+	void restart () {
+		gameOver = false;
+		win = false;
+		model.restart();
+	}
+
+	void restart (long seed) {
+		gameOver = false;
+		win = false;
+		model.restart(seed);
+	}
+
+	public void eventHitPlayer (Enemy enemy) {
+	}
+
+	public void eventHitEnemy (Enemy enemy, float x, float y) {
+	}
+
+	public void eventHitBullet (float x, float y, float vx, float vy) {
+	}
+
+	public void eventGameOver (boolean win) {
+		gameOver = true;
+		this.win = win;
+	}
+
+	/** Sets up file access without creating an application, so files can be loaded without a window. */
+	static void initialize () {
+		if (Gdx.files == null) Gdx.files = new LwjglFiles();
+	}
+
+	public static void main (String[] args) throws Exception {
+		initialize();
+		int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		float delta = 1 / 60f;
+
+		// The player runs right until the game is over, then the game restarts.
+		Headless headless = new Headless();
+		Model model = headless.model;
+		long start = System.nanoTime();
+		for (int i = 0; i < ticks; i++) {
+			if (headless.gameOver) headless.restart();
+			model.input.right = true;
+			headless.update(delta);
+		}
+		long time = System.nanoTime() - start;
+
+		System.out.println(ticks + " ticks in " + time / 1000000 + " ms, " + (int)(ticks / (time / 1e9)) + " ticks/second");
+	}
+}
@@ -0,0 +1,208 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Model.State;
+import com.esotericsoftware.spine.superspineboy.Model.Trigger;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+import java.util.Arrays;
+
+/** Runs generated levels of increasing length and enemy count headless with a {@link Bot} and reports the time per step as CSV,
+ * followed by a plot of the median, since a few steps that are stalled by GC or the OS skew the mean. The steps are split
+ * between {@link #samples} start positions spread evenly across the map, so every part of a long level is measured, not only
+ * its beginning. How many enemies are alive depends on the triggers the bot passes, so the steps of each level are grouped by
+ * the number of living enemies and each group is reported with the number of tiles in the map. Every level is run once to warm
+ * up the JIT before any level is measured. The player can't die, so enemies accumulate. Static fields can be set from the
+ * command line like {@link Balance}, eg "MapBenchmark.paged=true". */
+class MapBenchmark {
+	static int ticks = 60 * 60 * 4, warmupTicks = 60 * 60;
+	static int samples = 8; // Start positions, each played for an equal share of the ticks.
+	static int bucketSize = 16; // Steps are grouped by living enemies, eg 0-15, 16-31.
+	static float delta = 1 / 60f;
+	static boolean invulnerable = true;
+	static boolean paged = false; // Open the collision map from the .bits file instead of loading it all from the TMX.
+
+	final Array<FloatArray> buckets = new Array(); // Milliseconds per step, indexed by living enemies / bucketSize.
+	int width;
+	float enemiesPerTrigger;
+	int triggers;
+	long tiles;
+
+	/** @param measure False to only warm up. */
+	void run (FileHandle dir, int width, float enemiesPerTrigger, int ticks, boolean measure) {
+		this.width = width;
+		this.enemiesPerTrigger = enemiesPerTrigger;
+		MapGenerator.enemiesPerTrigger = enemiesPerTrigger;
+		String name = "level-" + width + "-" + enemiesPerTrigger;
+		MapGenerator.write(width, width, Gdx.files.internal("map/map.tmx"), dir, name);
+
+		CollisionMap collisionMap = paged ? CollisionMap.open(dir.child(name + ".bits"))
+			: CollisionMap.load(dir.child(name + ".tmx"), Model.mapCollisionLayer);
+		tiles = (long)collisionMap.width * collisionMap.height;
+		Headless headless = new Headless(collisionMap, dir.child(name + ".json"));
+		Model model = headless.model;
+		triggers = model.triggers.size;
+		Bot bot = new Bot();
+
+		int sampleTicks = Math.max(1, ticks / samples);
+		for (int i = 0; i < ticks; i++) {
+			if (i % sampleTicks == 0 || headless.gameOver) start(headless, bot, Math.min(i / sampleTicks, samples - 1), i);
+			if (invulnerable) model.player.hp = Player.hpStart;
+			long start = System.nanoTime();
+			bot.update(model, model.input);
+			headless.update(delta);
+			long time = System.nanoTime() - start;
+			if (!measure) continue;
+			int bucket = alive(model) / bucketSize;
+			while (buckets.size <= bucket)
+				buckets.add(new FloatArray());
+			buckets.get(bucket).add(time / 1e6f);
+		}
+		collisionMap.dispose();
+	}
+
+	/** Restarts the game with the player at the start of the specified part of the map. Triggers behind the player are skipped,
+	 * so the enemies are those the player meets from there on. */
+	void start (Headless headless, Bot bot, int sample, long seed) {
+		headless.restart(seed);
+		bot.restart(seed);
+		if (sample == 0) return;
+		Model model = headless.model;
+		CollisionMap map = model.collisionMap;
+		int x = (int)((long)width * sample / samples);
+		map.update(x);
+		// Stand on the floor.
+		int y = 0;
+		while (y < map.height - 1 && map.isSolid(x, y))
+			y++;
+		model.player.setPosition(x + 0.5f, y);
+		Array<Trigger> triggers = model.triggers;
+		while (model.triggerIndex < triggers.size && triggers.get(model.triggerIndex).x < x)
+			model.triggerIndex++;
+	}
+
+	static private int alive (Model model) {
+		int alive = 0;
+		Array<Enemy> enemies = model.enemies;
+		for (int i = 0, n = enemies.size; i < n; i++)
+			if (enemies.get(i).state != State.death) alive++;
+		return alive;
+	}
+
+	static float mean (FloatArray times) {
+		float total = 0;
+		for (int i = 0, n = times.size; i < n; i++)
+			total += times.items[i];
+		return total / times.size;
+	}
+
+	/** @param percent 0 to 1. */
+	static float percentile (float[] sorted, float percent) {
+		return sorted[Math.min(sorted.length - 1, (int)(sorted.length * percent))];
+	}
+
+	/** Returns a CSV line for each group of steps, eg "400,1.0,...". */
+	String csv () {
+		StringBuilder buffer = new StringBuilder();
+		for (int i = 0; i < buckets.size; i++) {
+			FloatArray times = buckets.get(i);
+			if (times.size == 0) continue;
+			float[] sorted = times.toArray();
+			Arrays.sort(sorted);
+			buffer.append(width).append(',').append(enemiesPerTrigger).append(',').append(triggers).append(',').append(tiles)
+				.append(',').append(samples).append(',').append(i * bucketSize).append(',').append(times.size).append(',')
+				.append(mean(times)).append(',').append(percentile(sorted, 0.5f)).append(',').append(percentile(sorted, 0.99f))
+				.append(',').append(sorted[sorted.length - 1]).append('\n');
+		}
+		return buffer.toString();
+	}
+
+	/** Arguments: [widths] [enemies per trigger] [csv file] [Class.field=value ...], where the widths and enemies per trigger are
+	 * comma separated lists, eg "400,4000,40000 1,3,9". */
+	public static void main (String[] args) throws Exception {
+		Headless.initialize();
+		String widths = "400,4000,40000", counts = "1,3,9", csvFile = null;
+		int positional = 0;
+		for (String arg : args) {
+			if (arg.indexOf('=') != -1)
+				Balance.set(arg);
+			else if (positional == 0) {
+				widths = arg;
+				positional++;
+			} else if (positional == 1) {
+				counts = arg;
+				positional++;
+			} else
+				csvFile = arg;
+		}
+		String[] widthList = widths.split(","), countList = counts.split(",");
+
+		FileHandle dir = new FileHandle(System.getProperty("java.io.tmpdir")).child("superspineboy-benchmark");
+		for (String width : widthList)
+			for (String count : countList)
+				new MapBenchmark().run(dir, Integer.parseInt(width), Float.parseFloat(count), warmupTicks, false);
+
+		StringBuilder csv = new StringBuilder();
+		csv.append("width,enemiesPerTrigger,triggers,tiles,samples,aliveEnemies,ticks,meanMs,p50Ms,p99Ms,maxMs\n");
+		StringBuilder plot = new StringBuilder();
+		for (String width : widthList) {
+			for (String count : countList) {
+				MapBenchmark benchmark = new MapBenchmark();
+				benchmark.run(dir, Integer.parseInt(width), Float.parseFloat(count), ticks, true);
+				String lines = benchmark.csv();
+				System.out.print(lines);
+				csv.append(lines);
+
+				for (int i = 0; i < benchmark.buckets.size; i++) {
+					FloatArray times = benchmark.buckets.get(i);
+					if (times.size == 0) continue;
+					float[] sorted = times.toArray();
+					Arrays.sort(sorted);
+					float median = percentile(sorted, 0.5f);
+					plot.append(
+						String.format("%10d tiles x %-3s %3d+ alive %7.4f ms |", benchmark.tiles, count, i * bucketSize, median));
+					for (int ii = 0, n = Math.round(median * 4000); ii < n && ii < 80; ii++)
+						plot.append('#');
+					plot.append('\n');
+				}
+			}
+		}
+		dir.deleteDirectory();
+
+		System.out.println();
+		System.out.println("Median step time by map tiles, enemies per trigger and living enemies (# = 0.00025 ms):");
+		System.out.print(plot);
+		if (csvFile != null) new FileHandle(csvFile).writeString(csv.toString(), false);
+	}
+}
@@ -0,0 +1,231 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.esotericsoftware.spine.superspineboy.Enemy.Type;
+import com.esotericsoftware.spine.superspineboy.Model.Trigger;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Base64Coder;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.XmlReader;
+import com.badlogic.gdx.utils.XmlReader.Element;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.zip.GZIPOutputStream;
+
+/** Generates levels of any length with matching triggers, for measuring how the game scales with level size, tile density and
+ * enemy count. The floor steps up and down, platforms float above it and triggers spawn enemies at regular intervals. Static
+ * fields can be set from the command line like {@link Balance}, eg "MapGenerator.platformDensity=0.5". */
+class MapGenerator {
+	static int height = 40, floorY = 7, maxFloorY = 10, ceilingY = 26;
+	static float stepChance = 0.05f; // Chance per column that the floor steps up or down a tile.
+	static float platformDensity = 0.3f; // Fraction of columns covered by platforms.
+	static float triggerSpacing = 12, enemiesPerTrigger = 3, spawnBehindChance = 0.2f;
+	static int collisionTile = 15, borderTile = 10;
+
+	final int width;
+	final RandomXS128 random;
+	final CollisionMap map;
+	final int[] floor; // The y of the top solid floor tile for each column.
+	final Array<Trigger> triggers = new Array();
+
+	MapGenerator (int width, long seed) {
+		this.width = width;
+		random = new RandomXS128(seed);
+		map = new CollisionMap(width, height);
+		floor = new int[width];
+		generateTiles();
+		generateTriggers();
+	}
+
+	private void generateTiles () {
+		int y = floorY;
+		for (int x = 0; x < width; x++) {
+			// The floor is flat near the start, where the player spawns, and near the end.
+			if (x > 8 && x < width - 8 && random.nextFloat() < stepChance)
+				y = Math.max(floorY, Math.min(maxFloorY, y + (random.nextBoolean() ? 1 : -1)));
+			floor[x] = y;
+			for (int i = floorY; i <= y; i++)
+				map.setSolid(x, i, true);
+			map.setSolid(x, ceilingY, true);
+		}
+		for (int i = floorY; i < ceilingY; i++) {
+			map.setSolid(0, i, true);
+			map.setSolid(width - 1, i, true);
+		}
+
+		// Platforms leave enough room for the player to walk under them and to stand on them.
+		int clearance = (int)Math.ceil(Player.height) + 1;
+		for (int x = 12; x < width - 12; x++) {
+			if (random.nextFloat() >= platformDensity / 8) continue;
+			int end = Math.min(x + 3 + random.nextInt(6), width - 12), top = 0;
+			for (int i = x; i < end; i++)
+				top = Math.max(top, floor[i]);
+			int platformY = Math.min(top + clearance + random.nextInt(3), ceilingY - clearance);
+			for (; x < end; x++)
+				map.setSolid(x, platformY, true);
+			x += 2;
+		}
+	}
+
+	private void generateTriggers () {
+		Type[] types = {Type.weak, Type.normal, Type.normal, Type.normal, Type.strong, Type.strong, Type.becomesBig};
+		for (float x = 17; x < width - 24; x += triggerSpacing * (0.5f + random.nextFloat())) {
+			Trigger trigger = new Trigger();
+			trigger.x = (int)x;
+			trigger.type = types[random.nextInt(types.length)];
+			trigger.count = Math.max(1, Math.round(enemiesPerTrigger * (0.5f + random.nextFloat())));
+			boolean behind = random.nextFloat() < spawnBehindChance;
+			trigger.spawnX = Math.max(2, Math.min(width - 3, trigger.x + (behind ? -19 : 22)));
+
+			// Spawn above the highest floor tile under the enemies, which are spread 2 tiles apart away from the trigger.
+			int start = (int)trigger.spawnX, end = start + (behind ? -2 : 2) * trigger.count;
+			int top = floorY;
+			for (int i = Math.max(0, Math.min(start, end)), n = Math.min(width - 1, Math.max(start, end) + 1); i <= n; i++)
+				top = Math.max(top, floor[i]);
+			trigger.spawnY = top + 1;
+			triggers.add(trigger);
+		}
+	}
+
+	/** Writes the triggers in the format read by {@link Model#loadTriggers(FileHandle)}. */
+	void writeTriggers (FileHandle file) {
+		StringBuilder buffer = new StringBuilder(triggers.size * 64);
+		buffer.append("[\n");
+		for (Trigger trigger : triggers) {
+			buffer.append("\t{ x: ").append((int)trigger.x);
+			buffer.append(", spawnX: ").append((int)trigger.spawnX);
+			buffer.append(", spawnY: ").append((int)trigger.spawnY);
+			buffer.append(", type: ").append(trigger.type);
+			buffer.append(", count: ").append(trigger.count).append(" },\n");
+		}
+		buffer.append("]\n");
+		file.writeString(buffer.toString(), false);
+	}
+
+	/** Writes a TMX map with the tilesets and layers of the template. The collision layer has the generated tiles, the last
+	 * border layer draws them and the other layers are empty. The template's atlas is referenced relative to the map, so the map
+	 * can only be drawn by the game when written next to the atlas. */
+	void writeTmx (FileHandle template, FileHandle file) {
+		String text = template.readString("UTF-8");
+		int layersStart = text.indexOf("<layer");
+		if (layersStart == -1) throw new GdxRuntimeException("Template has no tile layers: " + template);
+		int mapEnd = text.indexOf('>', text.indexOf("<map"));
+		String header = text.substring(0, mapEnd).replaceFirst(" width=\"\\d+\"", " width=\"" + width + "\"")
+			.replaceFirst(" height=\"\\d+\"", " height=\"" + height + "\"") + text.substring(mapEnd, layersStart);
+
+		Array<String> names = new Array();
+		for (Element layer : new XmlReader().parse(text).getChildrenByName("layer"))
+			names.add(layer.getAttribute("name"));
+
+		try (Writer writer = file.writer(false, "UTF-8")) {
+			writer.write(header);
+			for (int i = 0, n = names.size; i < n; i++) {
+				int tile = 0;
+				if (i == Model.mapCollisionLayer)
+					tile = collisionTile;
+				else if (names.get(i).equals("Borders")) //
+					tile = borderTile;
+				if (i > 0) writer.write(" ");
+				writer.write("<layer name=\"" + names.get(i) + "\" width=\"" + width + "\" height=\"" + height + "\">\n");
+				writer.write("  <data encoding=\"base64\" compression=\"gzip\">\n   ");
+				writer.write(Base64Coder.encode(tileData(tile)));
+				writer.write("\n  </data>\n </layer>\n");
+			}
+			writer.write("</map>\n");
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error writing map: " + file, ex);
+		}
+	}
+
+	/** Returns the gzipped tile IDs for a layer that has the specified tile where the map is solid, or no tiles if it is 0. */
+	private byte[] tileData (int tile) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(width * height / 8);
+		try (GZIPOutputStream output = new GZIPOutputStream(bytes)) {
+			byte[] row = new byte[width * 4];
+			for (int y = height - 1; y >= 0; y--) { // TMX rows are stored top to bottom.
+				for (int x = 0, i = 0; x < width; x++, i += 4) {
+					int id = tile != 0 && map.isSolid(x, y) ? tile : 0;
+					row[i] = (byte)id; // Little endian.
+					row[i + 1] = (byte)(id >> 8);
+					row[i + 2] = (byte)(id >> 16);
+					row[i + 3] = (byte)(id >> 24);
+				}
+				output.write(row);
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	/** Writes name.tmx, name.json with the triggers and name.bits with the collision map for
+	 * {@link CollisionMap#open(FileHandle)}. Returns the generator. */
+	static MapGenerator write (int width, long seed, FileHandle template, FileHandle dir, String name) {
+		MapGenerator generator = new MapGenerator(width, seed);
+		dir.mkdirs();
+		generator.writeTmx(template, dir.child(name + ".tmx"));
+		generator.writeTriggers(dir.child(name + ".json"));
+		generator.map.save(dir.child(name + ".bits"));
+		return generator;
+	}
+
+	/** Arguments: width [output dir] [seed] [Class.field=value ...] */
+	public static void main (String[] args) throws Exception {
+		Headless.initialize();
+		int width = 4000;
+		String dir = "generated";
+		long seed = 0;
+		int positional = 0;
+		for (String arg : args) {
+			if (arg.indexOf('=') != -1)
+				Balance.set(arg);
+			else if (positional == 0) {
+				width = Integer.parseInt(arg);
+				positional++;
+			} else if (positional == 1) {
+				dir = arg;
+				positional++;
+			} else
+				seed = Long.parseLong(arg);
+		}
+
+		String name = "level-" + width;
+		MapGenerator generator = write(width, seed, Gdx.files.internal("map/map.tmx"), new FileHandle(dir), name);
+		int enemies = 0;
+		for (Trigger trigger : generator.triggers)
+			enemies += trigger.count;
+		System.out.println("Wrote " + dir + "/" + name + ".tmx: " + width + "x" + height + ", " + generator.triggers.size
+			+ " triggers, " + enemies + " enemies");
+	}
+}
@@ -0,0 +1,149 @@
+/******************************************************************************
+* Spine Runtimes License Agreement
+* Last updated February 20, 2024. Replaces all prior versions.
+*
+* Copyright (c) 2013-2024, Esoteric Software LLC
+*
+* Integration of the Spine Runtimes into software or otherwise creating derivative works 
+* of the Spine Runtimes is permitted under the terms and conditions of Section 2 of the 
+* Spine Editor License Agreement:
+* https://esotericsoftware.com/spine-editor-license
+*
+* Otherwise, it is permitted to integrate the Spine Runtimes into software or otherwise
+* create derivative works of the Spine Runtimes (collectively, "Products"), provided that 
+* each user of the Products must obtain their own Spine Editor license and redistribution 
+* of the Products in any form must include this license and copyright notice.
+*
+* THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY EXPRESS OR IMPLIED 
+* WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS 
+* FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR 
+* ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES 
+* (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES, 
+* BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND ON ANY 
+* THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT 
+* (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THE SPINE RUNTIMES, 
+* EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+
+package com.esotericsoftware.spine.superspineboy;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/** Runs one peer per player headless, each with its own model and {@link Rollback}, connected to every other peer by loopback
+ * transports with latency and packet loss. The player of each peer is a {@link Bot} that reads that peer's model, so it reacts to
+ * predicted state the way a person would. At the end every peer must be in the same state as a model that simulated the confirmed
+ * input of all players without rollback. Reports how often each peer rolled back, how long simulating again took per frame and
+ * how often it ran out of budget. Exits with status 1 on failure. */
+class RollbackCheck {
+	/** Arguments: [latency ms] [loss percent] [ticks] [players] [budget us] */
+	public static void main (String[] args) throws Exception {
+		float latency = (args.length > 0 ? Integer.parseInt(args[0]) : 100) / 1000f;
+		float loss = (args.length > 1 ? Integer.parseInt(args[1]) : 5) / 100f;
+		int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 3600;
+		int playerCount = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+		long budget = (args.length > 4 ? Integer.parseInt(args[4]) : 4000) * 1000L;
+		Headless.initialize();
+
+		CollisionMap collisionMap = CollisionMap.load(Gdx.files.internal("map/map.tmx"), Model.mapCollisionLayer);
+		FileHandle triggersFile = Gdx.files.internal("map/triggers.json");
+		long seed = 1;
+		Headless[] peers = new Headless[playerCount];
+		Rollback[] rollbacks = new Rollback[playerCount];
+		Bot[] bots = new Bot[playerCount];
+		Array<PlayerInput>[] histories = new Array[playerCount]; // The inputs of each player, indexed by tick.
+		LoopbackTransport[][] transports = new LoopbackTransport[playerCount][playerCount]; // Indexed by sender, then receiver.
+		for (int i = 0; i < playerCount; i++) {
+			Headless peer = new Headless(collisionMap, triggersFile);
+			peer.model.playerCount = playerCount;
+			peer.model.restart(seed);
+			peers[i] = peer;
+			rollbacks[i] = new Rollback(peer.model, 30);
+			rollbacks[i].budget = budget;
+			bots[i] = new Bot();
+			bots[i].restart(seed + i);
+			histories[i] = new Array();
+			for (int ii = 0; ii < playerCount; ii++)
+				if (ii != i) transports[i][ii] = new LoopbackTransport(latency, latency / 4, loss, seed + i * playerCount + ii);
+		}
+
+		float delta = rollbacks[0].delta;
+		int stalls = 0;
+		for (int frame = 0;; frame++) {
+			float time = frame * delta;
+			boolean done = true;
+			for (int i = 0; i < playerCount; i++) {
+				Rollback rollback = rollbacks[i];
+				Model model = peers[i].model;
+				for (int ii = 0; ii < playerCount; ii++)
+					if (ii != i) transports[ii][i].receive(time, rollback);
+				if (rollback.tick < ticks) {
+					done = false;
+					if (!rollback.canAdvance()) {
+						stalls++;
+						continue;
+					}
+					// The bot decides once per tick and its input is confirmed right away, since it is this peer's player.
+					Array<PlayerInput> history = histories[i];
+					if (history.size == rollback.tick) {
+						PlayerInput input = new PlayerInput();
+						bots[i].update(model, model.players.get(i), input);
+						history.add(input);
+						rollback.addInput(i, rollback.tick, input);
+					}
+					rollback.advance();
+				} else if (rollback.confirmedTick < ticks - 1 || !rollback.isCaughtUp()) {
+					// Wait for the remaining input, then correct any mispredicted ticks.
+					done = false;
+					if (!rollback.isCaughtUp()) rollback.resimulate();
+				}
+				model.events.drain(model.enemyPool, peers[i]);
+			}
+			if (done) break;
+
+			// Each peer sends the recent input of its player to every other peer.
+			for (int i = 0; i < playerCount; i++) {
+				Array<PlayerInput> history = histories[i];
+				if (history.size == 0) continue;
+				for (int ii = 0; ii < playerCount; ii++)
+					if (ii != i) transports[i][ii].send(time, i, history, history.size - 1);
+			}
+		}
+
+		// Simulate the confirmed input without rollback.
+		Headless reference = new Headless(collisionMap, triggersFile);
+		reference.model.playerCount = playerCount;
+		reference.model.restart(seed);
+		for (int t = 0; t < ticks; t++) {
+			for (int i = 0; i < playerCount; i++)
+				reference.model.inputs.get(i).set(histories[i].get(t));
+			reference.update(delta);
+		}
+		long expected = reference.model.getStateHash();
+
+		int sent = 0, dropped = 0;
+		for (int i = 0; i < playerCount; i++) {
+			for (int ii = 0; ii < playerCount; ii++) {
+				if (ii == i) continue;
+				sent += transports[i][ii].sent;
+				dropped += transports[i][ii].dropped;
+			}
+		}
+		System.out.println("Players: " + playerCount + ", latency: " + (int)(latency * 1000) + " ms, loss: " + (int)(loss * 100)
+			+ "%, packets dropped: " + dropped + "/" + sent + ", stalls waiting for input: " + stalls);
+		boolean matches = true;
+		for (int i = 0; i < playerCount; i++) {
+			Rollback rollback = rollbacks[i];
+			boolean peerMatches = peers[i].model.getStateHash() == expected;
+			matches &= peerMatches;
+			float ms = rollback.resimulateTime / 1e6f;
+			System.out.println("Peer " + i + ": " + rollback.rollbacks + " rollbacks, " + rollback.resimulatedTicks
+				+ " ticks simulated again at " + (int)(rollback.resimulatedTicks / Math.max(ms, 0.001f)) + " ticks/ms, at most "
+				+ rollback.maxResimulateTime / 1e6f + " ms per frame, " + rollback.budgetStalls + " frames over the budget of "
+				+ budget / 1e6f + " ms, final state " + (peerMatches ? "matches" : "DOES NOT MATCH"));
+		}
+		if (!matches) System.exit(1);
+	}
+}